@@ -0,0 +1,44 @@
+package weather;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Alert rule evaluation, per reading as the report does and over a batch as `alerts` does
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalysisBenchmark {
+    private static final int BATCH_ROWS = 100_000;
+
+    private AlertRules rules;
+    private WeatherData data;
+    private WeatherGenerator.Station station;
+    private WeatherBatch batch;
+    private long[] fired;
+
+    @Setup
+    public void setup() throws java.io.IOException {
+        rules = AlertRules.parse(
+                new java.io.StringReader(AlertRules.DEFAULT_CONFIG));
+        station = new WeatherGenerator(42, 60_000L).station(0, 0L);
+        data = new WeatherData();
+        batch = new WeatherBatch(BATCH_ROWS);
+        station.next(batch, BATCH_ROWS);
+        fired = new long[BATCH_ROWS];
+    }
+
+    @Benchmark
+    public java.util.List<String> singleReading() {
+        station.next(data);
+        return rules.messages(rules.evaluate(data));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_ROWS)
+    public AlertRules.Hits batchPerRow() {
+        return rules.evaluate(batch, fired);
+    }
+}
@@ -0,0 +1,29 @@
+package weather;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// One step of the regional grid; compare -p size and runs with different core counts
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class GridBenchmark {
+    @Param({"1024", "4096"})
+    public int size;
+
+    private RegionalGrid grid;
+
+    @Setup
+    public void setup() {
+        grid = new RegionalGrid(size, 42, 0L);
+    }
+
+    @Benchmark
+    public long step() {
+        grid.step();
+        return grid.steps();
+    }
+}
@@ -0,0 +1,49 @@
+package weather;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Input parsing: the form's text fields and the importer's byte-level number parser
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+    private final String[] fields = {"23.5", "65", "12.25", "0.8", "1013.2"};
+    private final String uv = "7";
+    private byte[] row;
+    private int[] starts, ends;
+
+    @Setup
+    public void setup() {
+        String csv = String.join(",", fields) + "," + uv;
+        row = csv.getBytes(StandardCharsets.US_ASCII);
+        String[] parts = csv.split(",");
+        starts = new int[parts.length];
+        ends = new int[parts.length];
+        for (int i = 0, pos = 0; i < parts.length; pos += parts[i].length() + 1, i++) {
+            starts[i] = pos;
+            ends[i] = pos + parts[i].length();
+        }
+    }
+
+    @Benchmark
+    public void formFields(Blackhole bh) {
+        for (int i = 0; i < fields.length; i++) {
+            bh.consume(WeatherSimulator.parseDouble(fields[i],
+                    WeatherData.VALID_MIN[i], WeatherData.VALID_MAX[i]));
+        }
+        bh.consume(WeatherSimulator.parseInt(uv, 0, 11));
+    }
+
+    @Benchmark
+    public void importerRow(Blackhole bh) {
+        for (int i = 0; i < starts.length; i++) {
+            bh.consume(ObservationImporter.parseNumber(row, starts[i], ends[i]));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package weather;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Saving a reading to the observation log and loading the latest one back
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBenchmark {
+    private File dir;
+    private ObservationStore store;
+    private WeatherData data;
+    private WeatherGenerator.Station station;
+
+    @Setup(Level.Iteration)
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("weather-bench").toFile();
+        store = ObservationStore.open(dir);
+        station = new WeatherGenerator(42, 1000L).station(0, 0L);
+        data = new WeatherData();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        store.close();
+        File[] files = dir.listFiles();
+        if (files != null) for (File f : files) f.delete();
+        dir.delete();
+    }
+
+    @Benchmark
+    public WeatherData storeAppendLatest() throws IOException {
+        station.next(data);
+        store.append(data);
+        return store.latest();
+    }
+}
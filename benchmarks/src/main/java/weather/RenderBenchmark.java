@@ -0,0 +1,81 @@
+package weather;
+
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Paints the dashboard and report into an off-screen image, as the EDT would on each frame
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBenchmark {
+    private static final int WIDTH = 1000, HEIGHT = 700;
+
+    private WeatherModel model;
+    private DashboardPanel dashboard;
+    private ReportPanel report;
+    private WeatherGenerator.Station station;
+    private Cloud cloud;
+    private BufferedImage image;
+    private Graphics2D g;
+
+    @Setup
+    public void setup() throws java.io.IOException {
+        model = new WeatherModel(AlertRules.parse(
+                new java.io.StringReader(AlertRules.DEFAULT_CONFIG)));
+        station = new WeatherGenerator(42, 60_000L).station(0, System.currentTimeMillis());
+        // A day of minute readings behind the report's window stats and trend charts
+        for (int i = 0; i < 1440; i++) {
+            WeatherData data = new WeatherData();
+            station.next(data);
+            model.record(data);
+        }
+        dashboard = new DashboardPanel(model);
+        dashboard.setSize(WIDTH, HEIGHT);
+        report = new ReportPanel(model, new FrameClock());
+        report.setSize(report.getPreferredSize());
+        while (report.isAnimating()) report.step();
+        cloud = new Cloud();
+        image = new BufferedImage(WIDTH, report.getHeight(), BufferedImage.TYPE_INT_RGB);
+        g = image.createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        g.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage dashboardFrame() {
+        dashboard.step();
+        dashboard.paint(g);
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage reportFrame() {
+        report.paint(g);
+        return image;
+    }
+
+    // A new reading invalidates the cached report text, static layer and trend paths
+    @Benchmark
+    public BufferedImage reportAfterNewReading() {
+        WeatherData data = new WeatherData();
+        station.next(data);
+        model.record(data);
+        report.paint(g);
+        return image;
+    }
+
+    @Benchmark
+    public Shape cloudShape() {
+        cloud.x = (cloud.x + 1) % WIDTH;
+        return cloud.getShape();
+    }
+}
@@ -0,0 +1,202 @@
+package weather;
+
+import java.io.*;
+import java.util.*;
+
+// Threshold alerts loaded from alert_rules.conf and compiled into a flat decision table of
+// parallel arrays. Rules sharing a group are exclusive (the first match wins) and an
+// "otherwise" rule fires only when nothing else did; it is evaluated after every other rule,
+// wherever it appears in the file. Fired rules come back as a bitmask,
+// so evaluating a reading allocates nothing.
+final class AlertRules {
+    static final String CONFIG_FILE = "alert_rules.conf";
+    static final int MAX_RULES = 64;
+    // Used when alert_rules.conf is absent; same syntax as the file
+    static final String DEFAULT_CONFIG = String.join("\n",
+        "# <group>: <field> <op> <value> => <message>   (op is >, >=, <, <= or 'present')",
+        "# otherwise => <message>",
+        "temperature: temperature > 30 => High temperature indicates potential heat stress",
+        "temperature: temperature < 0 => Freezing conditions require thermal protection",
+        "temperature: temperature present => Temperatures within comfortable range",
+        "humidity: humidity > 80 => High humidity may cause discomfort",
+        "humidity: humidity < 30 => Low humidity may cause dehydration",
+        "precipitation: precipitation > 5 => Significant precipitation observed - flood risk assessment recommended",
+        "wind: windSpeed > 30 => Strong winds detected - caution advised for outdoor activities",
+        "uv: uvIndex > 8 => Extreme UV radiation - skin protection essential",
+        "uv: uvIndex > 5 => High UV index - sun protection recommended",
+        "otherwise => Weather conditions appear normal with no significant anomalies");
+
+    private static final int GT = 0, GE = 1, LT = 2, LE = 3, PRESENT = 4, OTHERWISE = 5;
+    private static final String[] OPS = {">", ">=", "<", "<=", "present"};
+
+    private final int size;
+    private final int[] field;
+    private final int[] op;
+    private final double[] threshold;
+    private final long[] groupMask;
+    private final String[] message;
+
+    // Per-rule totals from a batch evaluation: how often each rule fired, earliest and latest time
+    static final class Hits {
+        final long[] counts;
+        final long[] first;
+        final long[] last;
+
+        Hits(int rules) {
+            counts = new long[rules];
+            first = new long[rules];
+            last = new long[rules];
+        }
+    }
+
+    private AlertRules(List<String[]> rules) {
+        size = rules.size();
+        field = new int[size];
+        op = new int[size];
+        threshold = new double[size];
+        groupMask = new long[size];
+        message = new String[size];
+        for (int r = 0; r < size; r++) {
+            String[] rule = rules.get(r);  // group, field, op, value, message
+            op[r] = rule[2] == null ? OTHERWISE : Arrays.asList(OPS).indexOf(rule[2]);
+            field[r] = rule[1] == null ? -1 : WeatherData.fieldIndex(rule[1]);
+            threshold[r] = rule[3] == null ? 0 : Double.parseDouble(rule[3]);
+            message[r] = rule[4];
+            for (int o = 0; o < size; o++) {
+                if (rule[0] != null && rule[0].equals(rules.get(o)[0])) groupMask[r] |= 1L << o;
+            }
+        }
+    }
+
+    static AlertRules loadOrDefault(File file) {
+        if (file.exists()) {
+            try (Reader reader = new FileReader(file)) {
+                return parse(reader);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Error loading " + file + ", using default alert rules: " + e.getMessage());
+            }
+        }
+        try {
+            return parse(new StringReader(DEFAULT_CONFIG));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static AlertRules parse(Reader source) throws IOException {
+        List<String[]> rules = new ArrayList<>();
+        // Kept apart and appended last, so they see every other rule's result wherever they appear
+        List<String[]> otherwise = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        for (int lineNo = 1; (line = reader.readLine()) != null; lineNo++) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            int arrow = line.indexOf("=>");
+            if (arrow < 0) throw new IllegalArgumentException("Line " + lineNo + ": missing '=>'");
+            String head = line.substring(0, arrow).trim();
+            String text = line.substring(arrow + 2).trim();
+            if (head.equals("otherwise")) {
+                otherwise.add(new String[]{null, null, null, null, text});
+                continue;
+            }
+            int colon = head.indexOf(':');
+            if (colon < 0) throw new IllegalArgumentException("Line " + lineNo + ": missing '<group>:'");
+            String[] cond = head.substring(colon + 1).trim().split("\\s+");
+            if (cond.length < 2 || WeatherData.fieldIndex(cond[0]) < 0 || !Arrays.asList(OPS).contains(cond[1])
+                    || (cond[1].equals("present") ? cond.length != 2 : cond.length != 3)) {
+                throw new IllegalArgumentException("Line " + lineNo + ": expected '<field> <op> <value>' in '" + head + "'");
+            }
+            if (cond.length == 3) {
+                try {
+                    Double.parseDouble(cond[2]);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Line " + lineNo + ": bad threshold '" + cond[2] + "'");
+                }
+            }
+            rules.add(new String[]{head.substring(0, colon).trim(), cond[0], cond[1], cond.length == 3 ? cond[2] : null, text});
+        }
+        rules.addAll(otherwise);
+        if (rules.size() > MAX_RULES) throw new IllegalArgumentException("At most " + MAX_RULES + " rules are supported");
+        return new AlertRules(rules);
+    }
+
+    int size() {
+        return size;
+    }
+
+    String message(int rule) {
+        return message[rule];
+    }
+
+    long evaluate(WeatherData data) {
+        long fired = 0;
+        for (int r = 0; r < size; r++) {
+            if (op[r] == OTHERWISE) {
+                if (fired == 0) fired = 1L << r;
+            } else if ((fired & groupMask[r]) == 0 && data.has(field[r])
+                    && matches(op[r], data.get(field[r]), threshold[r])) {
+                fired |= 1L << r;
+            }
+        }
+        return fired;
+    }
+
+    List<String> messages(long fired) {
+        List<String> result = new ArrayList<>(Long.bitCount(fired));
+        for (long bits = fired; bits != 0; bits &= bits - 1) {
+            result.add(message[Long.numberOfTrailingZeros(bits)]);
+        }
+        return result;
+    }
+
+    // Evaluates every row of the batch rule by rule over its columns, leaving each row's
+    // fired bitmask in `fired` and returning per-rule counts with first/last timestamps.
+    Hits evaluate(WeatherBatch batch, long[] fired) {
+        int n = batch.size();
+        Arrays.fill(fired, 0, n, 0L);
+        for (int r = 0; r < size; r++) {
+            long bit = 1L << r;
+            if (op[r] == OTHERWISE) {
+                for (int i = 0; i < n; i++) {
+                    if (fired[i] == 0) fired[i] = bit;
+                }
+                continue;
+            }
+            double[] column = batch.column(field[r]);
+            int fieldBit = 1 << field[r], o = op[r];
+            long group = groupMask[r];
+            double t = threshold[r];
+            for (int i = 0; i < n; i++) {
+                if ((fired[i] & group) == 0 && (batch.presentMask(i) & fieldBit) != 0 && matches(o, column[i], t)) {
+                    fired[i] |= bit;
+                }
+            }
+        }
+        Hits hits = new Hits(size);
+        for (int i = 0; i < n; i++) {
+            long ts = batch.timestamp(i);
+            for (long bits = fired[i]; bits != 0; bits &= bits - 1) {
+                int r = Long.numberOfTrailingZeros(bits);
+                if (hits.counts[r]++ == 0) {
+                    hits.first[r] = ts;
+                    hits.last[r] = ts;
+                } else {
+                    hits.first[r] = Math.min(hits.first[r], ts);
+                    hits.last[r] = Math.max(hits.last[r], ts);
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static boolean matches(int op, double value, double threshold) {
+        switch (op) {
+            case GT: return value > threshold;
+            case GE: return value >= threshold;
+            case LT: return value < threshold;
+            case LE: return value <= threshold;
+            default: return true;
+        }
+    }
+}
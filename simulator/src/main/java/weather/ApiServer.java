@@ -0,0 +1,241 @@
+package weather;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Local HTTP API on the loopback interface: GET /api/current (the latest reading),
+// /api/history?from=&to=&limit= (readings in [from, to) as a JSON array, oldest first; times
+// are epoch millis or ISO-8601) and /api/stream (server-sent events, one per reading). JSON
+// uses the importer's keys, so history output loads straight back in as NDJSON rows. Each
+// reading is serialized once, when published, and every client is sent the same bytes. Every
+// exchange gets its own thread, virtual on Java 21+; a stream client parks until a newer
+// frame exists and, if it falls behind, skips straight to the latest one.
+final class ApiServer implements Closeable {
+    static final int DEFAULT_HISTORY_LIMIT = 10_000;
+    static final int MAX_HISTORY_LIMIT = 1_000_000;
+    // Idle streams get a comment line this often, so dead connections are noticed
+    private static final long HEARTBEAT_MILLIS = 15_000;
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.US_ASCII);
+    private static final int FLUSH_CHARS = 1 << 16;
+
+    // A published reading, serialized for /api/current and /api/stream
+    static final class Frame {
+        final long version;
+        final byte[] json;
+        final byte[] event;
+
+        Frame(long version, WeatherData data) {
+            this.version = version;
+            StringBuilder sb = new StringBuilder(192);
+            appendJson(sb, data);
+            json = sb.toString().getBytes(StandardCharsets.US_ASCII);
+            event = ("id: " + version + "\nevent: observation\ndata: " + sb + "\n\n").getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final ObservationStore store;
+    private final HttpServer server;
+    private final ExecutorService executor = Threads.newThreadPerTaskExecutor("http-exchange");
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+    private final AtomicLong versions = new AtomicLong();
+    private volatile Frame frame;
+    private volatile boolean closed;
+    final AtomicLong subscribers = new AtomicLong();
+    final AtomicLong eventsSent = new AtomicLong();
+    final AtomicLong requests = new AtomicLong();
+
+    ApiServer(ObservationStore store, int port) throws IOException {
+        this.store = store;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        server.createContext("/api/current", exchange -> handle(exchange, this::current));
+        server.createContext("/api/history", exchange -> handle(exchange, this::history));
+        server.createContext("/api/stream", exchange -> handle(exchange, this::stream));
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    // Makes a reading current for every client; safe to call from any thread
+    void publish(WeatherData data) {
+        Frame next = new Frame(versions.incrementAndGet(), data);
+        lock.lock();
+        try {
+            if (frame == null || next.version > frame.version) frame = next;
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        try {
+            requests.incrementAndGet();
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                error(exchange, 405, "only GET is supported");
+            } else {
+                handler.handle(exchange);
+            }
+        } catch (IllegalArgumentException e) {
+            error(exchange, 400, e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void current(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        Frame current = frame;
+        if (current == null) {
+            error(exchange, 404, "no observations yet");
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, current.json.length);
+        exchange.getResponseBody().write(current.json);
+        Metrics.HTTP_REQUEST.record(System.nanoTime() - start);
+    }
+
+    private void history(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        long from = timestamp(query.get("from"), Long.MIN_VALUE);
+        long to = timestamp(query.get("to"), Long.MAX_VALUE);
+        int limit = query.containsKey("limit") ? Integer.parseInt(query.get("limit")) : DEFAULT_HISTORY_LIMIT;
+        if (limit < 1 || limit > MAX_HISTORY_LIMIT) throw new IllegalArgumentException("limit must be 1.." + MAX_HISTORY_LIMIT);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        StringBuilder sb = new StringBuilder(FLUSH_CHARS + 256).append('[');
+        WeatherData row = new WeatherData();
+        long n = store.size();
+        int count = 0;
+        for (long i = store.lowerBound(from); i < n && count < limit; i++) {
+            store.readInto(i, row);
+            if (row.timestamp >= to) break;
+            if (count++ > 0) sb.append(',');
+            appendJson(sb, row);
+            if (sb.length() >= FLUSH_CHARS) {
+                out.write(sb.toString().getBytes(StandardCharsets.US_ASCII));
+                sb.setLength(0);
+            }
+        }
+        out.write(sb.append(']').toString().getBytes(StandardCharsets.US_ASCII));
+        Metrics.HTTP_REQUEST.record(System.nanoTime() - start);
+    }
+
+    private void stream(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        // A reconnecting client that already has the current frame isn't sent it again
+        String lastId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+        long seen = lastId != null && lastId.matches("\\d{1,18}") ? Long.parseLong(lastId) : -1;
+        subscribers.incrementAndGet();
+        try {
+            while (!closed) {
+                Frame next = await(seen, HEARTBEAT_MILLIS);
+                if (next != null && next.version != seen) {
+                    out.write(next.event);
+                    seen = next.version;
+                    eventsSent.incrementAndGet();
+                } else {
+                    out.write(HEARTBEAT);
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            // The client went away
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            subscribers.decrementAndGet();
+        }
+    }
+
+    // Latest frame once it differs from seen, or whatever is current after the timeout
+    private Frame await(long seen, long timeoutMillis) throws InterruptedException {
+        long nanos = timeoutMillis * 1_000_000L;
+        lock.lock();
+        try {
+            while (!closed && (frame == null || frame.version == seen) && nanos > 0) nanos = published.awaitNanos(nanos);
+            return frame;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void error(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder sb = new StringBuilder("{\"error\":\"");
+        for (char c : String.valueOf(message).toCharArray()) {
+            if (c == '"' || c == '\\') sb.append('\\');
+            if (c >= ' ') sb.append(c);
+        }
+        byte[] body = sb.append("\"}").toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static Map<String, String> parseQuery(String raw) {
+        Map<String, String> query = new HashMap<>();
+        if (raw == null) return query;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) query.put(pair.substring(0, eq), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static long timestamp(String text, long absent) {
+        if (text == null) return absent;
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        long ts = ObservationImporter.parseTimestamp(bytes, 0, bytes.length);
+        if (ts == Long.MIN_VALUE) throw new IllegalArgumentException("Bad timestamp: " + text);
+        return ts;
+    }
+
+    static void appendJson(StringBuilder sb, WeatherData data) {
+        sb.append("{\"timestamp\":").append(data.timestamp);
+        for (int f = 0; f < WeatherData.FIELD_COUNT; f++) {
+            sb.append(",\"").append(WeatherData.FIELD_NAMES[f]).append("\":");
+            if (!data.has(f)) sb.append("null");
+            else if (f == WeatherData.UV_INDEX) sb.append(data.uvIndex);
+            else sb.append(data.get(f));
+        }
+        sb.append('}');
+    }
+
+    // Wakes every stream so it can finish, then stops accepting
+    @Override
+    public void close() {
+        closed = true;
+        lock.lock();
+        try {
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        server.stop(1);
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,25 @@
+package weather;
+
+import java.awt.*;
+import java.awt.geom.*;
+
+// A cloud drifting across the dashboard sky
+class Cloud {
+    // Outline relative to (x, y), built once; the dashboard draws a pre-rendered sprite of it
+    static final Area TEMPLATE = createTemplate();
+
+    int x = (int) (Math.random() * 500);
+    int y = 50 + (int) (Math.random() * 150);
+    int speed = 1 + (int) (Math.random() * 2);
+
+    Shape getShape() {
+        return TEMPLATE.createTransformedArea(AffineTransform.getTranslateInstance(x, y));
+    }
+
+    private static Area createTemplate() {
+        Area area = new Area(new Ellipse2D.Double(0, 0, 60, 30));
+        area.add(new Area(new Ellipse2D.Double(10, -10, 30, 30)));
+        area.add(new Area(new Ellipse2D.Double(30, 5, 40, 25)));
+        return area;
+    }
+}
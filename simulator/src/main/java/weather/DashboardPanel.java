@@ -0,0 +1,241 @@
+package weather;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.image.BufferedImage;
+import java.util.*;
+import javax.swing.*;
+
+// Animated dashboard panel. Whoever changes the displayed reading wakes the frame clock,
+// and the panel picks the change up on its next step.
+class DashboardPanel extends JPanel implements FrameClock.Animated {
+    private final WeatherModel model;
+    private float sunPosition = 0.3f;
+    private boolean sunDirection = true;
+    private final ArrayList<Cloud> clouds = new ArrayList<>();
+    private final ParticleSystem rain = new ParticleSystem(ParticleSystem.Kind.RAIN, 1);
+    private final ParticleSystem snow = new ParticleSystem(ParticleSystem.Kind.SNOW, 2);
+    private final ParticleSystem hail = new ParticleSystem(ParticleSystem.Kind.HAIL, 3);
+    // Sun and clouds drift for this many steps after the panel shows or the displayed reading
+    // changes, then rest so the frame clock can idle; precipitation falls for as long as it lasts
+    static final int DRIFT_STEPS = 200;
+    private int driftSteps;
+    private WeatherData steppedData;
+    private long steppedTimestamp;
+    private final GradientPaint[] skyGradients = {
+        new GradientPaint(0, 0, new Color(25, 118, 210), 0, 400, new Color(3, 169, 244)),
+        new GradientPaint(0, 0, new Color(66, 66, 66), 0, 400, new Color(189, 189, 189)),
+        new GradientPaint(0, 0, new Color(2, 119, 189), 0, 400, new Color(41, 182, 246))
+    };
+    private final RenderAssets assets = new RenderAssets();
+    // Static layers below and above the animated sun, clouds and precipitation
+    private final Layer skyLayer = new Layer(Transparency.OPAQUE, this::drawSky);
+    private final Layer dataLayer = new Layer(Transparency.TRANSLUCENT, this::drawWeatherData);
+    // Formatted readings, rebuilt only when currentData changes
+    private final String[] dataTexts = new String[WeatherData.FIELD_COUNT];
+    private WeatherData formattedData;
+    private long formattedTimestamp;
+    // Performance overlay, toggled with F3
+    private boolean overlay = Boolean.getBoolean("weather.overlay");
+    private int overlayFrames;
+    private long overlayWindowStart = System.nanoTime();
+    private String overlayText = "measuring...";
+
+    public DashboardPanel(WeatherModel model) {
+        this.model = model;
+        setBackground(RenderAssets.DASHBOARD_BACKGROUND);
+        // Initialize clouds
+        for (int i = 0; i < 5; i++) {
+            clouds.add(new Cloud());
+        }
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && isShowing()) driftSteps = DRIFT_STEPS;
+        });
+    }
+
+    @Override
+    public long stepMillis() {
+        return 50;
+    }
+
+    // The overlay measures the frame rate, so it keeps frames coming while it is on
+    @Override
+    public boolean isAnimating() {
+        return overlay || driftSteps > 0 || displayedChanged() || precipitation() > 0
+                || rain.count() + snow.count() + hail.count() > 0;
+    }
+
+    private boolean displayedChanged() {
+        return steppedData != model.displayed() || steppedTimestamp != model.displayed().timestamp;
+    }
+
+    private double precipitation() {
+        return model.displayed().has(WeatherData.PRECIPITATION) ? model.displayed().precipitation : 0;
+    }
+
+    @Override
+    public void step() {
+        if (displayedChanged()) {
+            steppedData = model.displayed();
+            steppedTimestamp = model.displayed().timestamp;
+            driftSteps = DRIFT_STEPS;
+        }
+        if (driftSteps > 0) driftSteps--;
+
+        // Animate sun
+        if (sunDirection) {
+            sunPosition += 0.001f;
+            if (sunPosition > 0.7f) sunDirection = false;
+        } else {
+            sunPosition -= 0.001f;
+            if (sunPosition < 0.3f) sunDirection = true;
+        }
+
+        // Animate clouds
+        for (Cloud cloud : clouds) {
+            cloud.x += cloud.speed;
+            if (cloud.x > getWidth()) {
+                cloud.x = -100;
+                cloud.y = 50 + (int)(Math.random() * 150);
+            }
+        }
+
+        // Animate precipitation: snow below freezing, hail mixed into heavy warm-season rain
+        double precipitation = precipitation();
+        boolean freezing = model.displayed().has(WeatherData.TEMPERATURE) && model.displayed().temperature <= 0;
+        boolean convective = !freezing && precipitation > 20 && model.displayed().above(WeatherData.TEMPERATURE, 20);
+        int total = ParticleSystem.densityFor(precipitation, getWidth(), getHeight());
+        float wind = model.displayed().has(WeatherData.WIND_SPEED) ? (float) model.displayed().windSpeed * 0.1f : 0;
+        rain.step(getWidth(), getHeight(), freezing ? 0 : convective ? total - total / 5 : total, wind);
+        snow.step(getWidth(), getHeight(), freezing ? total : 0, wind);
+        hail.step(getWidth(), getHeight(), convective ? total / 5 : 0, wind);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        long start = System.nanoTime();
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        assets.validate(this);
+        formatData();
+
+        // Draw sky background
+        skyLayer.draw(g2d, this);
+
+        // Draw animated sun
+        drawSun(g2d);
+
+        // Draw animated clouds
+        drawClouds(g2d);
+
+        // Draw animated precipitation
+        rain.draw(g2d, getWidth(), getHeight());
+        snow.draw(g2d, getWidth(), getHeight());
+        hail.draw(g2d, getWidth(), getHeight());
+
+        // Draw weather data
+        dataLayer.draw(g2d, this);
+        Metrics.DASHBOARD_PAINT.record(System.nanoTime() - start);
+
+        if (overlay) drawOverlay(g2d, start);
+    }
+
+    void setOverlay(boolean overlay) {
+        this.overlay = overlay;
+        repaint();
+    }
+
+    boolean isOverlay() {
+        return overlay;
+    }
+
+    // Frame rate over the last second plus paint/step latencies; figures refresh once a second
+    private void drawOverlay(Graphics2D g2d, long now) {
+        overlayFrames++;
+        if (now - overlayWindowStart >= 1_000_000_000L) {
+            double fps = overlayFrames * 1e9 / (now - overlayWindowStart);
+            overlayText = String.format("%.1f fps | paint p50 %.2f p99 %.2f ms | step p99 %.3f ms | EDT p99 %.1f ms, %d stalls",
+                    fps, Metrics.DASHBOARD_PAINT.percentile(0.5) / 1e6, Metrics.DASHBOARD_PAINT.percentile(0.99) / 1e6,
+                    Metrics.ANIMATION_STEP.percentile(0.99) / 1e6, Metrics.EDT_LATENCY.percentile(0.99) / 1e6,
+                    Metrics.edtStalls.get());
+            overlayFrames = 0;
+            overlayWindowStart = now;
+        }
+        g2d.setFont(RenderAssets.STATS_FONT);
+        int width = g2d.getFontMetrics().stringWidth(overlayText);
+        g2d.setColor(RenderAssets.DATA_PANEL);
+        g2d.fillRect(8, 8, width + 12, 20);
+        g2d.setColor(Color.WHITE);
+        g2d.drawString(overlayText, 14, 22);
+    }
+
+    private void drawSky(Graphics2D g2d) {
+        int skyIndex = model.displayed().above(WeatherData.PRECIPITATION, 0) ? 1 :
+                      model.displayed().above(WeatherData.TEMPERATURE, 25) ? 0 : 2;
+        g2d.setPaint(skyGradients[skyIndex]);
+        g2d.fillRect(0, 0, getWidth(), getHeight());
+    }
+
+    private void drawSun(Graphics2D g2d) {
+        int sunSize = RenderAssets.SUN_SIZE;
+        int sunX = (int) (getWidth() * sunPosition);
+        int sunY = 100;
+        g2d.drawImage(assets.sunSprite(this), sunX - sunSize/2, sunY - sunSize/2, null);
+    }
+
+    private void drawClouds(Graphics2D g2d) {
+        BufferedImage sprite = assets.cloudSprite(this);
+        for (Cloud cloud : clouds) {
+            g2d.drawImage(sprite, cloud.x + RenderAssets.CLOUD_OFFSET_X, cloud.y + RenderAssets.CLOUD_OFFSET_Y, null);
+        }
+    }
+
+    private void drawWeatherData(Graphics2D g2d) {
+        int panelHeight = getHeight() - 250;
+        g2d.setColor(RenderAssets.DATA_PANEL);
+        g2d.fillRoundRect(50, panelHeight, getWidth() - 100, 200, 20, 20);
+
+        g2d.setFont(RenderAssets.DATA_TITLE_FONT);
+        g2d.setColor(Color.WHITE);
+        g2d.drawString("Current Weather Conditions", 70, panelHeight + 40);
+
+        g2d.setFont(RenderAssets.DATA_FONT);
+        int yPos = panelHeight + 80;
+        if (model.displayed().has(WeatherData.TEMPERATURE))
+            drawDataPoint(g2d, "Temperature: ", dataTexts[WeatherData.TEMPERATURE], 70, yPos);
+        if (model.displayed().has(WeatherData.HUMIDITY))
+            drawDataPoint(g2d, "Humidity: ", dataTexts[WeatherData.HUMIDITY], 350, yPos);
+        if (model.displayed().has(WeatherData.WIND_SPEED))
+            drawDataPoint(g2d, "Wind Speed: ", dataTexts[WeatherData.WIND_SPEED], 600, yPos);
+        
+        yPos += 40;
+        if (model.displayed().has(WeatherData.PRECIPITATION))
+            drawDataPoint(g2d, "Precipitation: ", dataTexts[WeatherData.PRECIPITATION], 70, yPos);
+        if (model.displayed().has(WeatherData.PRESSURE))
+            drawDataPoint(g2d, "Pressure: ", dataTexts[WeatherData.PRESSURE], 350, yPos);
+        if (model.displayed().has(WeatherData.UV_INDEX))
+            drawDataPoint(g2d, "UV Index: ", dataTexts[WeatherData.UV_INDEX], 600, yPos);
+    }
+
+    private void formatData() {
+        if (formattedData == model.displayed() && formattedTimestamp == model.displayed().timestamp) return;
+        formattedData = model.displayed();
+        formattedTimestamp = model.displayed().timestamp;
+        skyLayer.invalidate();
+        dataLayer.invalidate();
+        dataTexts[WeatherData.TEMPERATURE] = String.format("%.1f°C", model.displayed().temperature);
+        dataTexts[WeatherData.HUMIDITY] = String.format("%.0f%%", model.displayed().humidity);
+        dataTexts[WeatherData.WIND_SPEED] = String.format("%.1f km/h", model.displayed().windSpeed);
+        dataTexts[WeatherData.PRECIPITATION] = String.format("%.1f mm", model.displayed().precipitation);
+        dataTexts[WeatherData.PRESSURE] = String.format("%.1f hPa", model.displayed().pressure);
+        dataTexts[WeatherData.UV_INDEX] = Integer.toString(model.displayed().uvIndex);
+    }
+
+    private void drawDataPoint(Graphics2D g2d, String label, String value, int x, int y) {
+        g2d.setColor(RenderAssets.DATA_LABEL);
+        g2d.drawString(label, x, y);
+        g2d.setColor(Color.WHITE);
+        g2d.drawString(value, x + g2d.getFontMetrics().stringWidth(label), y);
+    }
+}
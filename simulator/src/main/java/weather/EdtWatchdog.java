@@ -0,0 +1,50 @@
+package weather;
+
+import java.awt.*;
+
+// Posts a heartbeat to the EDT every quarter threshold. When one stays queued past the
+// threshold, the EDT is blocked: its stack is captured once per stall and reported.
+final class EdtWatchdog implements Runnable {
+    private final long thresholdNanos;
+    private volatile Thread edt;
+    private volatile boolean pending;
+
+    EdtWatchdog(long thresholdMillis) {
+        this.thresholdNanos = thresholdMillis * 1_000_000L;
+    }
+
+    @Override
+    public void run() {
+        long pollMillis = Math.max(1, thresholdNanos / 4_000_000L);
+        long posted = 0;
+        boolean reported = false;
+        try {
+            while (true) {
+                if (!pending) {
+                    pending = true;
+                    reported = false;
+                    long postedAt = posted = System.nanoTime();
+                    EventQueue.invokeLater(() -> {
+                        edt = Thread.currentThread();
+                        Metrics.EDT_LATENCY.record(System.nanoTime() - postedAt);
+                        pending = false;
+                    });
+                } else if (!reported && edt != null && System.nanoTime() - posted > thresholdNanos) {
+                    reported = true;
+                    report(edt.getStackTrace(), (System.nanoTime() - posted) / 1_000_000L);
+                }
+                Thread.sleep(pollMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void report(StackTraceElement[] trace, long blockedMillis) {
+        StringBuilder text = new StringBuilder("EDT blocked for over ").append(blockedMillis).append(" ms");
+        for (StackTraceElement frame : trace) text.append("\n\tat ").append(frame);
+        Metrics.edtStalls.incrementAndGet();
+        Metrics.lastEdtStall = text.toString();
+        System.err.println(text);
+    }
+}
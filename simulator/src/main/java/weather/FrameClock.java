@@ -0,0 +1,114 @@
+package weather;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.util.*;
+import javax.swing.*;
+import javax.swing.Timer;
+
+// Single frame clock for every animated panel, replacing one Swing Timer per panel.
+// Each panel advances in fixed simulation steps of its own length no matter how often
+// the timer actually fires; only showing panels are stepped, only panels that stepped
+// are repainted, and the timer stops once no showing panel has anything to animate.
+final class FrameClock {
+    interface Animated {
+        long stepMillis();
+        void step();
+        boolean isAnimating();
+
+        // Area a step can change; null repaints the whole component, NOTHING repaints nothing
+        default Rectangle dirtyRegion() {
+            return null;
+        }
+    }
+
+    // For steps that only start work or update other state; whatever they change repaints itself
+    static final Rectangle NOTHING = new Rectangle();
+
+    // Beyond this the backlog is dropped instead of replayed, so a stalled EDT doesn't spiral
+    private static final int MAX_STEPS_PER_FRAME = 5;
+
+    // For panels that are stepped by hand (headless rendering): it has no timer, and waking it
+    // does nothing, so any number of threads can share it
+    static final FrameClock MANUAL = new FrameClock(false);
+
+    private final ArrayList<Entry> entries = new ArrayList<>();
+    private final Timer timer;
+    private long lastTick;
+
+    FrameClock() {
+        this(true);
+    }
+
+    private FrameClock(boolean timed) {
+        timer = timed ? new Timer(Integer.MAX_VALUE, e -> tick()) : null;
+    }
+
+    private static final class Entry {
+        final JComponent component;
+        final Animated animated;
+        long accumulatedNanos;
+
+        Entry(JComponent component, Animated animated) {
+            this.component = component;
+            this.animated = animated;
+        }
+    }
+
+    <T extends JComponent & Animated> void register(T panel) {
+        register(panel, panel);
+    }
+
+    // Steps animated only while component is showing, and repaints component after its steps
+    void register(JComponent component, Animated animated) {
+        if (timer == null) throw new IllegalStateException("A manual clock does not drive panels");
+        entries.add(new Entry(component, animated));
+        int delay = (int) Math.min(timer.getDelay(), animated.stepMillis());
+        // The first tick waits for the initial delay, which setDelay leaves alone
+        timer.setDelay(delay);
+        timer.setInitialDelay(delay);
+        component.addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && component.isShowing()) wake();
+        });
+        wake();
+    }
+
+    // Restarts the clock after it went idle; cheap to call when it is already running
+    void wake() {
+        if (timer == null || timer.isRunning()) return;
+        lastTick = System.nanoTime();
+        for (Entry entry : entries) entry.accumulatedNanos = 0;
+        timer.start();
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        long elapsed = now - lastTick;
+        lastTick = now;
+        boolean active = false;
+        for (Entry entry : entries) {
+            if (!entry.component.isShowing() || !entry.animated.isAnimating()) {
+                entry.accumulatedNanos = 0;
+                continue;
+            }
+            long stepNanos = entry.animated.stepMillis() * 1_000_000L;
+            entry.accumulatedNanos += elapsed;
+            int steps = 0;
+            while (entry.accumulatedNanos >= stepNanos && steps < MAX_STEPS_PER_FRAME) {
+                long stepStart = System.nanoTime();
+                entry.animated.step();
+                Metrics.ANIMATION_STEP.record(System.nanoTime() - stepStart);
+                entry.accumulatedNanos -= stepNanos;
+                steps++;
+            }
+            if (steps == MAX_STEPS_PER_FRAME) entry.accumulatedNanos = 0;
+            if (steps > 0) {
+                Rectangle dirty = entry.animated.dirtyRegion();
+                if (dirty == null) entry.component.repaint();
+                else entry.component.repaint(dirty);
+            }
+            active |= entry.animated.isAnimating();
+        }
+        if (!active) timer.stop();
+    }
+}
@@ -0,0 +1,429 @@
+package weather;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import javax.swing.*;
+
+// Pannable, zoomable heatmap of one regional grid field. The view is cut into TILE x TILE
+// pixel tiles rasterized straight into int pixel arrays, in parallel on the common pool, and
+// kept in an LRU cache keyed by field, zoom and tile with the grid step they show, so panning
+// only rasterizes the tiles that scroll into view. Nothing is rasterized on the EDT: paint
+// draws what the cache has (an older step's tile until its replacement is ready) and queues
+// the rest, and finished tiles trigger a repaint. Grid snapshots are taken off the EDT
+// together with a pyramid of 2x2 means (zoomed out by 2^k, a tile reads one cell per pixel
+// from level k) into two reused buffers, so live refreshes allocate no field-sized arrays.
+class HeatmapPanel extends JPanel implements FrameClock.Animated {
+    static final int[] FIELDS = {WeatherData.TEMPERATURE, WeatherData.PRECIPITATION, WeatherData.WIND_SPEED,
+            WeatherData.PRESSURE, WeatherData.HUMIDITY};
+    static final String[] FIELD_LABELS = {"Temperature (°C)", "Precipitation (mm/h)", "Wind Speed (km/h)",
+            "Pressure (hPa)", "Humidity (%)"};
+    // Fixed colour scale per WeatherData field, so tiles stay valid for their step
+    private static final float[] SCALE_MIN = {-20, 0, 0, 0, 990, 0};
+    private static final float[] SCALE_MAX = {40, 100, 60, 15, 1036, 11};
+    private static final int[][] PALETTES = {
+        palette(new Color(49, 54, 149), new Color(116, 173, 209), new Color(255, 255, 191),
+                new Color(244, 109, 67), new Color(165, 0, 38)),
+        palette(new Color(140, 81, 10), new Color(246, 232, 195), new Color(53, 151, 143)),
+        palette(new Color(247, 252, 245), new Color(116, 196, 118), new Color(0, 68, 27)),
+        palette(new Color(247, 251, 255), new Color(107, 174, 214), new Color(63, 0, 125)),
+        palette(new Color(84, 39, 136), new Color(247, 247, 247), new Color(230, 97, 1)),
+        null
+    };
+    private static final int TILE = 128;
+    // 32 MB of pixels, a few screens' worth
+    private static final int CACHE_TILES = 512;
+    // 2^MAX_ZOOM pixels per cell at the closest zoom
+    private static final int MAX_ZOOM = 4;
+
+    private RegionalGrid grid;
+    private int field = WeatherData.TEMPERATURE;
+    private boolean live = true;
+    private Snapshot snapshot;
+    // The other snapshot buffer, refilled by the next refresh once nothing reads it
+    private Snapshot spare;
+    private boolean refreshing;
+    private final FrameClock frameClock;
+    // 2^zoom pixels per cell; below zero, pyramid level -zoom is drawn a pixel per cell
+    private int zoom;
+    // Top-left of the view in the current zoom's pixel space, which wraps like the grid
+    private long originX, originY;
+    private final LinkedHashMap<TileKey, Tile> tiles = new LinkedHashMap<>(CACHE_TILES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TileKey, Tile> eldest) {
+            return size() > CACHE_TILES;
+        }
+    };
+    // Tiles queued or being rasterized, so paints in the meantime don't queue them again
+    private final HashSet<TileKey> pending = new HashSet<>();
+    private int lastRasterized;
+    private long lastRasterNanos;
+
+    private static final class TileKey {
+        final int field, zoom, x, y;
+
+        TileKey(int field, int zoom, int x, int y) {
+            this.field = field;
+            this.zoom = zoom;
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof TileKey)) return false;
+            TileKey k = (TileKey) o;
+            return field == k.field && zoom == k.zoom && x == k.x && y == k.y;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((field * 31 + zoom) * 8191 + x) * 8191 + y;
+        }
+    }
+
+    private static final class Tile {
+        final long step;
+        final BufferedImage image;
+
+        Tile(long step, BufferedImage image) {
+            this.step = step;
+            this.image = image;
+        }
+    }
+
+    // One field at one step: level 0 is the grid itself, each further level halves it. Filled
+    // off the EDT and handed over with invokeLater; refilled only once readers drops to zero.
+    private static final class Snapshot {
+        final int n;
+        final float[][] levels;
+        int field;
+        long step;
+        // Rasterizations in flight that read this snapshot; touched on the EDT only
+        int readers;
+
+        Snapshot(int n) {
+            this.n = n;
+            levels = new float[Integer.numberOfTrailingZeros(n / TILE) + 1][];
+            for (int level = 0; level < levels.length; level++) levels[level] = new float[size(level) * size(level)];
+        }
+
+        void fill(RegionalGrid grid, int field) {
+            this.field = field;
+            step = grid.copy(field, levels[0]);
+            for (int level = 1; level < levels.length; level++) {
+                float[] src = levels[level - 1], dst = levels[level];
+                int srcSize = size(level - 1), size = size(level);
+                for (int y = 0; y < size; y++) {
+                    int top = 2 * y * srcSize, bottom = top + srcSize;
+                    for (int x = 0; x < size; x++) {
+                        dst[y * size + x] = 0.25f * (src[top + 2 * x] + src[top + 2 * x + 1]
+                                + src[bottom + 2 * x] + src[bottom + 2 * x + 1]);
+                    }
+                }
+            }
+        }
+
+        int size(int level) {
+            return n >> level;
+        }
+    }
+
+    // Tiles missing from the cache, split across the common pool
+    private final class RasterTask extends RecursiveAction {
+        private final Snapshot source;
+        private final TileKey[] keys;
+        private final BufferedImage[] images;
+        private final int from, to;
+
+        RasterTask(Snapshot source, TileKey[] keys, BufferedImage[] images, int from, int to) {
+            this.source = source;
+            this.keys = keys;
+            this.images = images;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RasterTask(source, keys, images, from, mid), new RasterTask(source, keys, images, mid, to));
+                return;
+            }
+            rasterize(source, keys[from], images[from]);
+        }
+    }
+
+    HeatmapPanel(FrameClock frameClock) {
+        this.frameClock = frameClock;
+        setBackground(RenderAssets.DASHBOARD_BACKGROUND);
+        setPreferredSize(new Dimension(800, 600));
+        // Don't wait a whole step for the first snapshot
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && isShowing()) refresh();
+        });
+        MouseAdapter mouse = new MouseAdapter() {
+            private Point last;
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                last = e.getPoint();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (last == null) return;
+                pan(last.x - e.getX(), last.y - e.getY());
+                last = e.getPoint();
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                setZoom(zoom - Integer.signum(e.getWheelRotation()), e.getX(), e.getY());
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
+    }
+
+    void setGrid(RegionalGrid grid) {
+        this.grid = grid;
+        snapshot = null;
+        spare = null;
+        tiles.clear();
+        refresh();
+        frameClock.wake();
+    }
+
+    void setField(int field) {
+        this.field = field;
+        refresh();
+        repaint();
+    }
+
+    // When off, the view keeps its snapshot and panning only draws cached tiles
+    void setLive(boolean live) {
+        this.live = live;
+        refresh();
+        frameClock.wake();
+    }
+
+    // Live views poll the grid for new steps; a refresh repaints once its snapshot arrives
+    @Override
+    public long stepMillis() {
+        return 250;
+    }
+
+    @Override
+    public void step() {
+        refresh();
+    }
+
+    @Override
+    public boolean isAnimating() {
+        return grid != null && live;
+    }
+
+    @Override
+    public Rectangle dirtyRegion() {
+        return FrameClock.NOTHING;
+    }
+
+    void pan(int dx, int dy) {
+        if (snapshot == null) return;
+        long span = mapPixels();
+        originX = Math.floorMod(originX + dx, span);
+        originY = Math.floorMod(originY + dy, span);
+        repaint();
+    }
+
+    // Changes zoom keeping the map point under (anchorX, anchorY) in place
+    void setZoom(int next, int anchorX, int anchorY) {
+        if (snapshot == null) return;
+        next = Math.max(1 - snapshot.levels.length, Math.min(MAX_ZOOM, next));
+        if (next == zoom) return;
+        int shift = next - zoom;
+        long x = originX + anchorX, y = originY + anchorY;
+        x = shift > 0 ? x << shift : x >> -shift;
+        y = shift > 0 ? y << shift : y >> -shift;
+        zoom = next;
+        long span = mapPixels();
+        originX = Math.floorMod(x - anchorX, span);
+        originY = Math.floorMod(y - anchorY, span);
+        repaint();
+    }
+
+    private long mapPixels() {
+        return zoom >= 0 ? (long) grid.n << zoom : grid.n >> -zoom;
+    }
+
+    private void refresh() {
+        if (grid == null || refreshing || !isShowing()) return;
+        if (snapshot != null && snapshot.field == field && (!live || snapshot.step == grid.steps())) return;
+        if (spare == null) spare = new Snapshot(grid.n);
+        // Tiles are still being rasterized from it; the next refresh tries again
+        if (spare.readers > 0) return;
+        refreshing = true;
+        RegionalGrid source = grid;
+        Snapshot target = spare;
+        int wanted = field;
+        ForkJoinPool.commonPool().execute(() -> {
+            boolean filled = false;
+            try {
+                target.fill(source, wanted);
+                filled = true;
+            } finally {
+                boolean taken = filled;
+                SwingUtilities.invokeLater(() -> {
+                    refreshing = false;
+                    if (!taken || source != grid) return;
+                    if (snapshot == null) fit(target);
+                    spare = snapshot;
+                    snapshot = target;
+                    repaint();
+                });
+            }
+        });
+    }
+
+    // Rasterizes tiles from the snapshot on the common pool, then caches them and repaints
+    private void rasterizeLater(Snapshot source, TileKey[] keys) {
+        BufferedImage[] images = new BufferedImage[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            images[i] = new BufferedImage(TILE, TILE, BufferedImage.TYPE_INT_RGB);
+            pending.add(keys[i]);
+        }
+        source.readers++;
+        RegionalGrid owner = grid;
+        long step = source.step;
+        ForkJoinPool.commonPool().execute(() -> {
+            long start = System.nanoTime();
+            boolean done = false;
+            try {
+                new RasterTask(source, keys, images, 0, keys.length).invoke();
+                done = true;
+            } finally {
+                boolean rasterized = done;
+                long nanos = System.nanoTime() - start;
+                SwingUtilities.invokeLater(() -> {
+                    source.readers--;
+                    for (TileKey key : keys) pending.remove(key);
+                    if (!rasterized || owner != grid) return;
+                    for (int i = 0; i < keys.length; i++) tiles.put(keys[i], new Tile(step, images[i]));
+                    lastRasterized = keys.length;
+                    lastRasterNanos = nanos;
+                    repaint();
+                });
+            }
+        });
+    }
+
+    // Initial view: the farthest zoom at which the grid still covers the panel, centred
+    private void fit(Snapshot first) {
+        zoom = 1 - first.levels.length;
+        while (zoom < MAX_ZOOM && mapPixels() < Math.max(getWidth(), getHeight())) zoom++;
+        long span = mapPixels();
+        originX = Math.floorMod((span - getWidth()) / 2, span);
+        originY = Math.floorMod((span - getHeight()) / 2, span);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        long start = System.nanoTime();
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g;
+        Snapshot current = snapshot;
+        if (current == null) {
+            g2d.setFont(RenderAssets.DATA_FONT);
+            g2d.setColor(RenderAssets.REPORT_TEXT);
+            g2d.drawString(grid == null ? "Starting the regional grid..." : "Sampling the regional grid...", 40, 60);
+            return;
+        }
+        int tilesAcross = (int) (mapPixels() / TILE);
+        long x0 = Math.floorDiv(originX, TILE), x1 = Math.floorDiv(originX + getWidth() - 1, TILE);
+        long y0 = Math.floorDiv(originY, TILE), y1 = Math.floorDiv(originY + getHeight() - 1, TILE);
+        int columns = (int) (x1 - x0 + 1), rows = (int) (y1 - y0 + 1);
+        TileKey[] stale = new TileKey[columns * rows];
+        int staleCount = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                TileKey key = new TileKey(current.field, zoom, (int) Math.floorMod(x0 + column, (long) tilesAcross),
+                        (int) Math.floorMod(y0 + row, (long) tilesAcross));
+                Tile tile = tiles.get(key);
+                if ((tile == null || tile.step != current.step) && !pending.contains(key)) stale[staleCount++] = key;
+                // An older step's tile stands in until the new one is ready; a missing one shows background
+                if (tile != null) {
+                    g2d.drawImage(tile.image, (int) ((x0 + column) * TILE - originX), (int) ((y0 + row) * TILE - originY), null);
+                }
+            }
+        }
+        if (staleCount > 0) rasterizeLater(current, Arrays.copyOf(stale, staleCount));
+        drawLegend(g2d, current);
+        Metrics.HEATMAP_PAINT.record(System.nanoTime() - start);
+    }
+
+    private void rasterize(Snapshot source, TileKey key, BufferedImage image) {
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        int level = Math.max(0, -key.zoom), shift = Math.max(0, key.zoom);
+        float[] cells = source.levels[level];
+        int size = source.size(level);
+        int[] palette = PALETTES[key.field];
+        float min = SCALE_MIN[key.field], scale = 255 / (SCALE_MAX[key.field] - min);
+        int left = key.x * TILE, top = key.y * TILE;
+        for (int y = 0; y < TILE; y++) {
+            int row = ((top + y) >> shift) * size, out = y * TILE;
+            for (int x = 0; x < TILE; x++) {
+                int index = (int) ((cells[row + ((left + x) >> shift)] - min) * scale);
+                pixels[out + x] = palette[index < 0 ? 0 : index > 255 ? 255 : index];
+            }
+        }
+    }
+
+    private void drawLegend(Graphics2D g2d, Snapshot current) {
+        int[] palette = PALETTES[current.field];
+        int x = 14, y = getHeight() - 34;
+        String scale = zoom >= 0 ? (1 << zoom) + " px/cell" : "1:" + (1 << -zoom) + " (level " + -zoom + ")";
+        String status = String.format("step %d | %s | %d tiles cached | last %d rasterized in %.1f ms",
+                current.step, scale, tiles.size(), lastRasterized, lastRasterNanos / 1e6);
+        g2d.setFont(RenderAssets.STATS_FONT);
+        g2d.setColor(RenderAssets.DATA_PANEL);
+        g2d.fillRect(8, 8, g2d.getFontMetrics().stringWidth(status) + 12, 20);
+        g2d.fillRect(x - 6, y - 18, 256 + 12, 42);
+        for (int i = 0; i < 256; i++) {
+            g2d.setColor(new Color(palette[i]));
+            g2d.drawLine(x + i, y, x + i, y + 10);
+        }
+        g2d.setColor(Color.WHITE);
+        g2d.drawString(status, 14, 22);
+        g2d.drawString(String.format("%.0f", SCALE_MIN[current.field]), x, y - 4);
+        String max = String.format("%.0f", SCALE_MAX[current.field]);
+        g2d.drawString(max, x + 256 - g2d.getFontMetrics().stringWidth(max), y - 4);
+    }
+
+    // Colour of a value on the field's scale
+    static int rgb(int field, double value) {
+        int index = (int) ((value - SCALE_MIN[field]) * 255 / (SCALE_MAX[field] - SCALE_MIN[field]));
+        return PALETTES[field][index < 0 ? 0 : index > 255 ? 255 : index];
+    }
+
+    // 256-entry colour ramp through evenly spaced stops
+    private static int[] palette(Color... stops) {
+        int[] result = new int[256];
+        for (int i = 0; i < 256; i++) {
+            float position = i / 255f * (stops.length - 1);
+            int stop = Math.min(stops.length - 2, (int) position);
+            float f = position - stop;
+            Color a = stops[stop], b = stops[stop + 1];
+            result[i] = Math.round(a.getRed() + f * (b.getRed() - a.getRed())) << 16
+                    | Math.round(a.getGreen() + f * (b.getGreen() - a.getGreen())) << 8
+                    | Math.round(a.getBlue() + f * (b.getBlue() - a.getBlue()));
+        }
+        return result;
+    }
+}
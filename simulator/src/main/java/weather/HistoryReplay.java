@@ -0,0 +1,182 @@
+package weather;
+
+import java.io.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Plays stored history back through the model at 1x to MAX_SPEED x real time. A prefetch
+// thread decodes CHUNK records at a time into WeatherBatches, at most READ_AHEAD chunks ahead
+// of playback, so the EDT only takes decoded rows off a queue and never waits on the disk.
+// A seek is a lowerBound() binary search plus reloading the retained window behind the new
+// position; chunks still queued for the old position are dropped by their generation.
+final class HistoryReplay implements Closeable {
+    static final double MAX_SPEED = 10_000;
+    private static final int CHUNK = 4096;
+    private static final int READ_AHEAD = 8;
+    // Beyond this many readings per advance the replay clock holds back instead of skipping
+    private static final int MAX_READINGS_PER_ADVANCE = 50_000;
+
+    private static final class Chunk {
+        final long generation;
+        final WeatherBatch rows;
+
+        Chunk(long generation, WeatherBatch rows) {
+            this.generation = generation;
+            this.rows = rows;
+        }
+    }
+
+    private final ObservationStore store;
+    private final WeatherModel model;
+    private final BlockingQueue<Chunk> ready = new ArrayBlockingQueue<>(READ_AHEAD);
+    // Guarded by this: which seek the prefetcher is reading for, and where it reads next
+    private long generation;
+    private long cursor;
+    private boolean closed;
+    // Playback state, confined to the caller's thread (the EDT in the GUI)
+    private Chunk current;
+    private int position;
+    private long nextIndex;
+    private long time;
+    private double speed = 1;
+    private long stalls;
+    private long lastSeekNanos;
+
+    HistoryReplay(ObservationStore store, WeatherModel model) {
+        this.store = store;
+        this.model = model;
+        Thread prefetcher = new Thread(this::prefetch, "replay-prefetch");
+        prefetcher.setDaemon(true);
+        prefetcher.start();
+    }
+
+    long time() {
+        return time;
+    }
+
+    double speed() {
+        return speed;
+    }
+
+    void setSpeed(double speed) {
+        this.speed = Math.max(1, Math.min(MAX_SPEED, speed));
+    }
+
+    // Times the prefetcher was behind when a reading was due
+    long stalls() {
+        return stalls;
+    }
+
+    long lastSeekNanos() {
+        return lastSeekNanos;
+    }
+
+    int readAhead() {
+        return ready.size();
+    }
+
+    // Moves playback to time: the model gets the retained span up to it, and playback
+    // continues with the first reading after it
+    void seek(long time) throws IOException {
+        long start = System.nanoTime();
+        WeatherBatch window = new WeatherBatch(1024);
+        store.readRange(time - WeatherModel.HISTORY_MILLIS, time + 1, window);
+        model.load(window);
+        long index = store.lowerBound(time + 1);
+        // The first chunk is decoded here, so playback can resume before the prefetcher catches up
+        WeatherBatch rows = new WeatherBatch(CHUNK);
+        store.read(index, CHUNK, rows);
+        synchronized (this) {
+            generation++;
+            cursor = index + rows.size();
+            ready.clear();
+            notifyAll();
+        }
+        current = new Chunk(generation, rows);
+        position = 0;
+        nextIndex = index;
+        this.time = time;
+        lastSeekNanos = System.nanoTime() - start;
+        Metrics.REPLAY_SEEK.record(lastSeekNanos);
+    }
+
+    // Runs the replay clock forward by elapsed real time at the current speed and feeds every
+    // reading that fell due into the model, straight from the decoded chunks; true if any did
+    boolean advance(long elapsedNanos) throws IOException {
+        long target = time + (long) (elapsedNanos / 1e6 * speed);
+        int fed = 0;
+        while (fed < MAX_READINGS_PER_ADVANCE && nextChunk(target)) {
+            WeatherBatch rows = current.rows;
+            int end = Math.min(rows.lowerBound(target + 1), position + MAX_READINGS_PER_ADVANCE - fed);
+            if (end == position) break;
+            model.record(rows, position, end);
+            fed += end - position;
+            nextIndex += end - position;
+            position = end;
+        }
+        time = fed == MAX_READINGS_PER_ADVANCE ? model.currentData.timestamp : target;
+        return fed > 0;
+    }
+
+    boolean atEnd() {
+        return nextIndex >= store.size();
+    }
+
+    // Makes sure current has rows left to play; false if the next chunk isn't decoded yet
+    private boolean nextChunk(long upTo) throws IOException {
+        while (current == null || position == current.rows.size()) {
+            Chunk chunk = ready.poll();
+            if (chunk == null) {
+                if (nextIndex < store.size() && store.timestampAt(nextIndex) <= upTo) stalls++;
+                return false;
+            }
+            // Generation is only written on this thread, in seek()
+            if (chunk.generation != generation) continue;
+            current = chunk;
+            position = 0;
+        }
+        return true;
+    }
+
+    private void prefetch() {
+        try {
+            while (true) {
+                long readFor, from;
+                synchronized (this) {
+                    // New records may still be appended while replaying, so keep checking
+                    while (!closed && cursor >= store.size()) wait(100);
+                    if (closed) return;
+                    readFor = generation;
+                    from = cursor;
+                }
+                WeatherBatch rows = new WeatherBatch(CHUNK);
+                store.read(from, CHUNK, rows);
+                synchronized (this) {
+                    if (readFor != generation) continue;
+                    cursor = from + rows.size();
+                }
+                // No interrupt on close (it would close the store's channels), so poll instead
+                Chunk chunk = new Chunk(readFor, rows);
+                while (!ready.offer(chunk, 100, java.util.concurrent.TimeUnit.MILLISECONDS)) {
+                    synchronized (this) {
+                        if (closed) return;
+                        if (readFor != generation) break;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // Shutting down
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Replay prefetch stopped: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        ready.clear();
+    }
+}
@@ -0,0 +1,74 @@
+package weather;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// HDR-style latency histogram in nanoseconds: each power of two is split into 2^SUB_BITS
+// linear buckets, so any recorded value is resolved to within ~3% up to MAX_VALUE (~18 min).
+final class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final long MAX_VALUE = (1L << 40) - 1;
+    private static final int BUCKETS = indexOf(MAX_VALUE) + 1;
+
+    final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    void record(long nanos) {
+        long v = Math.max(0, Math.min(nanos, MAX_VALUE));
+        counts.incrementAndGet(indexOf(v));
+        total.incrementAndGet();
+        sum.addAndGet(v);
+        if (v > max.get()) max.accumulateAndGet(v, Math::max);
+    }
+
+    long count() {
+        return total.get();
+    }
+
+    double mean() {
+        long n = total.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    // Midpoint of the bucket holding the q-th quantile, capped at the exact maximum
+    double percentile(double q) {
+        long n = total.get();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(max.get(), lowestValue(i) + (lowestValue(i + 1) - lowestValue(i)) / 2.0);
+        }
+        return max.get();
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        total.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    // Values below 2^(SUB_BITS+1) get a bucket each; above that, bucket width doubles every 2^SUB_BITS buckets
+    private static int indexOf(long v) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(v) - SUB_BITS);
+        return (shift << SUB_BITS) + (int) (v >>> shift);
+    }
+
+    private static long lowestValue(int index) {
+        int shift = Math.max(0, (index >> SUB_BITS) - 1);
+        return (long) (index - (shift << SUB_BITS)) << shift;
+    }
+}
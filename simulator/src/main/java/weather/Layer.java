@@ -0,0 +1,79 @@
+package weather;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.function.Consumer;
+import javax.swing.*;
+
+// Off-screen cache for content that changes far less often than the frame rate. The
+// layer is re-rendered only after invalidate(), a size change, or when the VolatileImage
+// surface is lost; otherwise drawing it is a single blit. Components without a screen
+// configuration (e.g. painted into a BufferedImage) get a BufferedImage-backed layer.
+final class Layer {
+    private final int transparency;
+    private final Consumer<Graphics2D> painter;
+    private VolatileImage volatileImage;
+    private BufferedImage bufferedImage;
+    private boolean dirty = true;
+
+    Layer(int transparency, Consumer<Graphics2D> painter) {
+        this.transparency = transparency;
+        this.painter = painter;
+    }
+
+    void invalidate() {
+        dirty = true;
+    }
+
+    void draw(Graphics2D g2d, JComponent owner) {
+        int w = owner.getWidth(), h = owner.getHeight();
+        if (w <= 0 || h <= 0) return;
+        GraphicsConfiguration gc = owner.getGraphicsConfiguration();
+        if (gc == null) {
+            drawBuffered(g2d, w, h);
+            return;
+        }
+        bufferedImage = null;
+        do {
+            int status = volatileImage == null ? VolatileImage.IMAGE_INCOMPATIBLE : volatileImage.validate(gc);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE
+                    || volatileImage.getWidth() != w || volatileImage.getHeight() != h) {
+                if (volatileImage != null) volatileImage.flush();
+                volatileImage = gc.createCompatibleVolatileImage(w, h, transparency);
+                dirty = true;
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                dirty = true;
+            }
+            if (dirty) {
+                render(volatileImage.createGraphics(), w, h);
+            }
+            g2d.drawImage(volatileImage, 0, 0, null);
+        } while (volatileImage.contentsLost());
+    }
+
+    private void drawBuffered(Graphics2D g2d, int w, int h) {
+        if (bufferedImage == null || bufferedImage.getWidth() != w || bufferedImage.getHeight() != h) {
+            bufferedImage = new BufferedImage(w, h, transparency == Transparency.OPAQUE
+                    ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+            dirty = true;
+        }
+        if (dirty) render(bufferedImage.createGraphics(), w, h);
+        g2d.drawImage(bufferedImage, 0, 0, null);
+    }
+
+    private void render(Graphics2D g, int w, int h) {
+        try {
+            if (transparency != Transparency.OPAQUE) {
+                g.setComposite(AlphaComposite.Clear);
+                g.fillRect(0, 0, w, h);
+                g.setComposite(AlphaComposite.SrcOver);
+            }
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            painter.accept(g);
+        } finally {
+            g.dispose();
+        }
+        dirty = false;
+    }
+}
@@ -0,0 +1,277 @@
+package weather;
+
+import java.io.*;
+import java.text.SimpleDateFormat;
+import java.util.*;
+
+// Entry point. The command-line modes run headless, so this class must not load any AWT type
+// before it sets java.awt.headless: WeatherSimulator is a JFrame, and AWT's static
+// initialisation looks for a display as soon as such a class is initialised.
+public final class Main {
+    static final String DATA_DIR = "weather_data";
+    private static final Set<String> COMMANDS = Set.of("generate", "import", "render", "grid", "replay", "sensors", "serve", "alerts");
+
+    private Main() {
+    }
+
+    public static void main(String[] args) {
+        String command = args.length > 0 ? args[0] : "";
+        // import and render without their file or directory arguments open the GUI, as they always have
+        int required = command.equals("import") || command.equals("render") ? 2 : 1;
+        if (!COMMANDS.contains(command) || args.length < required) {
+            WeatherSimulator.launch();
+            return;
+        }
+        System.setProperty("java.awt.headless", "true");
+        if (command.equals("generate")) {
+            runGenerator(args);
+            return;
+        }
+        if (command.equals("import")) {
+            runImport(args);
+            return;
+        }
+        if (command.equals("render")) {
+            try {
+                runRender(args);
+            } catch (IOException | InterruptedException e) {
+                System.err.println("Error rendering reports: " + e.getMessage());
+            }
+            return;
+        }
+        if (command.equals("grid")) {
+            runGrid(args);
+            return;
+        }
+        if (command.equals("replay")) {
+            try {
+                runReplay(args);
+            } catch (IOException | InterruptedException e) {
+                System.err.println("Error replaying history: " + e.getMessage());
+            }
+            return;
+        }
+        if (command.equals("sensors")) {
+            try {
+                runSensors(args);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return;
+        }
+        if (command.equals("serve")) {
+            try {
+                runServe(args);
+            } catch (IOException | InterruptedException e) {
+                System.err.println("Error serving data: " + e.getMessage());
+            }
+            return;
+        }
+        if (command.equals("alerts")) {
+            try {
+                runAlerts(args);
+            } catch (IOException e) {
+                System.err.println("Error evaluating alerts: " + e.getMessage());
+            }
+        }
+    }
+
+    // Headless load generator: generate <stations> <steps> [seed]
+    private static void runGenerator(String[] args) {
+        int stations = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int steps = args.length > 2 ? Integer.parseInt(args[2]) : 8760;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42L;
+        WeatherGenerator generator = new WeatherGenerator(seed, 3_600_000L);
+        long start = System.nanoTime();
+        WeatherBatch[] batches = generator.generate(stations, steps, 0L);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double meanTemp = 0;
+        for (WeatherBatch batch : batches) meanTemp += batch.value(batch.size() - 1, WeatherData.TEMPERATURE);
+        System.out.printf("Generated %,d observations for %d stations in %.3f s (%,.0f obs/s), final mean temperature %.2f C%n",
+                (long) stations * steps, stations, seconds, stations * (double) steps / seconds, meanTemp / stations);
+    }
+
+    // Replay over weather_data/: replay [seeks] [speed] [seconds]. Times random seeks across the
+    // whole history, then plays in real time from its start at the given speed.
+    private static void runReplay(String[] args) throws IOException, InterruptedException {
+        int seeks = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        double speed = args.length > 2 ? Double.parseDouble(args[2]) : HistoryReplay.MAX_SPEED;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        try (ObservationStore store = ObservationStore.open(new File(DATA_DIR))) {
+            if (store.size() == 0) throw new IOException("no stored observations in " + DATA_DIR);
+            WeatherModel model = new WeatherModel(AlertRules.loadOrDefault(new File(AlertRules.CONFIG_FILE)));
+            HistoryReplay replay = new HistoryReplay(store, model);
+            long first = store.timestampAt(0), last = store.timestampAt(store.size() - 1);
+            SplittableRandom rng = new SplittableRandom(42);
+            for (int i = 0; i < seeks; i++) replay.seek(first + (long) (rng.nextDouble() * (last - first)));
+            System.out.printf("%,d observations over %.1f days: %,d seeks, p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                    store.size(), (last - first) / 86_400_000.0, seeks, Metrics.REPLAY_SEEK.percentile(0.5) / 1e6,
+                    Metrics.REPLAY_SEEK.percentile(0.99) / 1e6, Metrics.REPLAY_SEEK.max() / 1e6);
+            replay.seek(first);
+            replay.setSpeed(speed);
+            long start = System.nanoTime(), lastTick = start, played = 0;
+            while (System.nanoTime() - start < seconds * 1_000_000_000L && !(replay.atEnd() && replay.time() >= last)) {
+                Thread.sleep(16);
+                long now = System.nanoTime();
+                long before = model.historyVersion;
+                replay.advance(now - lastTick);
+                played += model.historyVersion - before;
+                lastTick = now;
+            }
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Played %,d readings (%.1f simulated days) in %.1f s at %,.0fx: %,.0f readings/s, %d stalls%n",
+                    played, (replay.time() - first) / 86_400_000.0, elapsed, speed, played / elapsed, replay.stalls());
+            replay.close();
+        }
+    }
+
+    // Sensor network throughput: sensors [stations] [intervalMicros] [seconds]. A reader takes a
+    // UI-style snapshot every 16 ms while the sensors publish.
+    private static void runSensors(String[] args) throws InterruptedException {
+        int stations = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        long intervalMicros = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        SensorNetwork network = new SensorNetwork(stations, intervalMicros * 1000, 42L);
+        long start = System.nanoTime();
+        network.start();
+        // Warm up, then measure from a clean slate
+        Thread.sleep(1000);
+        Metrics.reset();
+        SensorNetwork.Snapshot first = network.snapshot(), last = first;
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        while (System.nanoTime() < end) {
+            Thread.sleep(16);
+            last = network.snapshot();
+            Metrics.SENSOR_AGE.record(last.maxAgeNanos);
+        }
+        network.close();
+        double elapsed = (last.takenNanos - first.takenNanos) / 1e9;
+        System.out.printf("%,d sensors (%s, started in %.2f s): %,d readings in %.1f s, %,.0f readings/s%n",
+                stations, Threads.hasVirtualThreads() ? "a virtual thread each" : "tasks on " + Runtime.getRuntime().availableProcessors() + " threads",
+                (first.takenNanos - start) / 1e9 - 1, last.readings - first.readings, elapsed,
+                (last.readings - first.readings) / elapsed);
+        System.out.printf("%,d snapshots: copy p50 %.0f us, p99 %.0f us, max %.0f us; oldest reading per snapshot p50 %.1f ms, p99 %.1f ms%n",
+                Metrics.SENSOR_SNAPSHOT.count(), Metrics.SENSOR_SNAPSHOT.percentile(0.5) / 1e3,
+                Metrics.SENSOR_SNAPSHOT.percentile(0.99) / 1e3, Metrics.SENSOR_SNAPSHOT.max() / 1e3,
+                Metrics.SENSOR_AGE.percentile(0.5) / 1e6, Metrics.SENSOR_AGE.percentile(0.99) / 1e6);
+    }
+
+    // Headless HTTP API over the stored history: serve [port] [feedMillis]. With feedMillis, a
+    // generated reading a simulated hour on is published (not stored) at that interval, to
+    // exercise /api/stream.
+    private static void runServe(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+        long feedMillis = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        ObservationStore store = ObservationStore.open(new File(DATA_DIR));
+        ApiServer api = new ApiServer(store, port);
+        WeatherData latest = store.latest();
+        if (latest != null) api.publish(latest);
+        System.out.printf("Serving %,d observations at http://localhost:%d/api/{current,history,stream}%n", store.size(), api.port());
+        WeatherGenerator.Station feed = feedMillis > 0
+                ? new WeatherGenerator(System.nanoTime(), 3_600_000L).station(0, System.currentTimeMillis()) : null;
+        long lastReport = System.nanoTime(), lastEvents = 0;
+        while (true) {
+            Thread.sleep(feedMillis > 0 ? feedMillis : 1000);
+            if (feed != null) {
+                WeatherData data = new WeatherData();
+                feed.next(data);
+                api.publish(data);
+            }
+            long now = System.nanoTime();
+            if (now - lastReport >= 10_000_000_000L) {
+                long events = api.eventsSent.get();
+                System.out.printf("%,d subscribers, %,.0f events/s, %,d requests, request p99 %.2f ms%n", api.subscribers.get(),
+                        (events - lastEvents) * 1e9 / (now - lastReport), api.requests.get(), Metrics.HTTP_REQUEST.percentile(0.99) / 1e6);
+                lastReport = now;
+                lastEvents = events;
+            }
+        }
+    }
+
+    // Grid solver throughput: grid [size] [steps] [seed]
+    private static void runGrid(String[] args) {
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 4096;
+        int steps = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42L;
+        long start = System.nanoTime();
+        RegionalGrid grid = new RegionalGrid(size, seed, System.currentTimeMillis());
+        double setup = (System.nanoTime() - start) / 1e9;
+        grid.step();  // warm-up
+        start = System.nanoTime();
+        for (int i = 0; i < steps; i++) grid.step();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        WeatherData centre = new WeatherData();
+        grid.sample(0.5, 0.5, centre);
+        System.out.printf("%dx%d grid: setup %.2f s, %d steps in %.3f s (%.1f steps/s, %,.0f cells/s)%n",
+                size, size, setup, steps, seconds, steps / seconds, (double) size * size * steps / seconds);
+        System.out.printf("Centre: %.1f C, %.0f%%, %.1f km/h, %.1f mm, %.1f hPa%n", centre.temperature,
+                centre.humidity, centre.windSpeed, centre.precipitation, centre.pressure);
+    }
+
+    // Headless batch rendering: render <outDir> [stations] [steps] [seed] [threads]
+    private static void runRender(String[] args) throws IOException, InterruptedException {
+        // The PNG streams write straight to their files rather than through a temp-file cache
+        javax.imageio.ImageIO.setUseCache(false);
+        File outDir = new File(args[1]);
+        int stations = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int steps = args.length > 3 ? Integer.parseInt(args[3]) : 720;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42L;
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+        WeatherBatch[] observations = new WeatherGenerator(seed, 3_600_000L)
+                .generate(stations, steps, System.currentTimeMillis() - steps * 3_600_000L);
+        long start = System.nanoTime();
+        int written = StationRenderer.renderAll(observations, outDir, threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Rendered %,d images for %d stations on %d threads in %.3f s (%,.1f stations/s)%n",
+                written, stations, threads, seconds, stations / seconds);
+    }
+
+    // Bulk import into the observation log: import <file.csv|file.ndjson>...
+    private static void runImport(String[] args) {
+        try (ObservationStore store = ObservationStore.open(new File(DATA_DIR))) {
+            ObservationImporter importer = new ObservationImporter(store);
+            for (int i = 1; i < args.length; i++) {
+                System.out.println(args[i] + ": " + importer.importFile(new File(args[i])));
+            }
+        } catch (IOException e) {
+            System.err.println("Error importing data: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Alert rules over the stored history, or over generated data: alerts [<stations> <steps> [seed]]
+    private static void runAlerts(String[] args) throws IOException {
+        AlertRules rules = AlertRules.loadOrDefault(new File(AlertRules.CONFIG_FILE));
+        WeatherBatch batch;
+        if (args.length > 2) {
+            long seed = args.length > 3 ? Long.parseLong(args[3]) : 42L;
+            WeatherBatch[] stations = new WeatherGenerator(seed, 3_600_000L)
+                    .generate(Integer.parseInt(args[1]), Integer.parseInt(args[2]), 0L);
+            batch = new WeatherBatch(stations.length * stations[0].size());
+            WeatherData row = new WeatherData();
+            for (WeatherBatch station : stations) {
+                for (int i = 0; i < station.size(); i++) {
+                    station.get(i, row);
+                    batch.add(row);
+                }
+            }
+        } else {
+            batch = new WeatherBatch(1024);
+            try (ObservationStore store = ObservationStore.open(new File(DATA_DIR))) {
+                store.readRange(Long.MIN_VALUE, Long.MAX_VALUE, batch);
+            }
+        }
+        long start = System.nanoTime();
+        AlertRules.Hits hits = rules.evaluate(batch, new long[batch.size()]);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Evaluated %d rules over %,d observations in %.3f s (%,.0f obs/s)%n",
+                rules.size(), batch.size(), seconds, batch.size() / Math.max(seconds, 1e-9));
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        for (int r = 0; r < rules.size(); r++) {
+            if (hits.counts[r] == 0) continue;
+            System.out.printf("%,10d  %s .. %s  %s%n", hits.counts[r],
+                    format.format(new Date(hits.first[r])), format.format(new Date(hits.last[r])), rules.message(r));
+        }
+    }
+}
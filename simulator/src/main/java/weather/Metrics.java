@@ -0,0 +1,125 @@
+package weather;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.*;
+
+// Process-wide latency histograms plus the EDT watchdog's findings, exported over JMX
+// as weather:type=Metrics. Recording is a few atomic increments, cheap enough for every frame.
+final class Metrics {
+    static final LatencyHistogram DASHBOARD_PAINT = new LatencyHistogram("DashboardPaint");
+    static final LatencyHistogram REPORT_PAINT = new LatencyHistogram("ReportPaint");
+    static final LatencyHistogram ANIMATION_STEP = new LatencyHistogram("AnimationStep");
+    static final LatencyHistogram SAVE = new LatencyHistogram("Save");
+    static final LatencyHistogram LOAD = new LatencyHistogram("Load");
+    static final LatencyHistogram PARSE = new LatencyHistogram("Parse");
+    static final LatencyHistogram GRID_STEP = new LatencyHistogram("GridStep");
+    static final LatencyHistogram HEATMAP_PAINT = new LatencyHistogram("HeatmapPaint");
+    // Time to copy the sensor table, and the oldest reading in each UI snapshot
+    static final LatencyHistogram SENSOR_SNAPSHOT = new LatencyHistogram("SensorSnapshot");
+    static final LatencyHistogram SENSOR_AGE = new LatencyHistogram("SensorAge");
+    static final LatencyHistogram REPLAY_SEEK = new LatencyHistogram("ReplaySeek");
+    // Time to answer /api/current and /api/history
+    static final LatencyHistogram HTTP_REQUEST = new LatencyHistogram("HttpRequest");
+    // Delay between posting an event and the EDT running it
+    static final LatencyHistogram EDT_LATENCY = new LatencyHistogram("EdtLatency");
+    static final LatencyHistogram[] ALL = {
+        DASHBOARD_PAINT, REPORT_PAINT, HEATMAP_PAINT, ANIMATION_STEP, SAVE, LOAD, PARSE, GRID_STEP,
+        SENSOR_SNAPSHOT, SENSOR_AGE, REPLAY_SEEK, HTTP_REQUEST, EDT_LATENCY
+    };
+    static final String OBJECT_NAME = "weather:type=Metrics";
+
+    static final AtomicLong edtStalls = new AtomicLong();
+    static volatile String lastEdtStall = "";
+
+    private Metrics() {
+    }
+
+    // Registers the MBean and starts the watchdog; stalls are EDT blocks longer than stallMillis
+    static void install(long stallMillis) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Jmx(), new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            System.err.println("Metrics MBean not registered: " + e.getMessage());
+        }
+        Thread watchdog = new Thread(new EdtWatchdog(stallMillis), "edt-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+    }
+
+    static void reset() {
+        for (LatencyHistogram histogram : ALL) histogram.reset();
+        edtStalls.set(0);
+        lastEdtStall = "";
+    }
+
+    // Attributes <Histogram>{Count,MeanMicros,P50Micros,P90Micros,P99Micros,P999Micros,MaxMicros},
+    // EdtStalls and LastEdtStall; operation reset()
+    static final class Jmx implements DynamicMBean {
+        private static final String[] STATS = {"Count", "MeanMicros", "P50Micros", "P90Micros", "P99Micros", "P999Micros", "MaxMicros"};
+        private static final double[] QUANTILES = {0, 0, 0.5, 0.9, 0.99, 0.999};
+
+        @Override
+        public Object getAttribute(String name) throws AttributeNotFoundException {
+            if (name.equals("EdtStalls")) return edtStalls.get();
+            if (name.equals("LastEdtStall")) return lastEdtStall;
+            for (LatencyHistogram histogram : ALL) {
+                if (!name.startsWith(histogram.name)) continue;
+                int stat = Arrays.asList(STATS).indexOf(name.substring(histogram.name.length()));
+                if (stat == 0) return histogram.count();
+                if (stat == 1) return histogram.mean() / 1e3;
+                if (stat == STATS.length - 1) return histogram.max() / 1e3;
+                if (stat > 0) return histogram.percentile(QUANTILES[stat]) / 1e3;
+            }
+            throw new AttributeNotFoundException(name);
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] names) {
+            AttributeList list = new AttributeList();
+            for (String name : names) {
+                try {
+                    list.add(new Attribute(name, getAttribute(name)));
+                } catch (AttributeNotFoundException e) {
+                    // skipped, as DynamicMBean allows
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException(attribute.getName() + " is read-only");
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String action, Object[] params, String[] signature) throws ReflectionException {
+            if (!action.equals("reset")) throw new ReflectionException(new NoSuchMethodException(action));
+            Metrics.reset();
+            return null;
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<>();
+            for (LatencyHistogram histogram : ALL) {
+                for (int i = 0; i < STATS.length; i++) {
+                    attributes.add(new MBeanAttributeInfo(histogram.name + STATS[i], i == 0 ? "long" : "double",
+                            histogram.name + " " + STATS[i], true, false, false));
+                }
+            }
+            attributes.add(new MBeanAttributeInfo("EdtStalls", "long", "EDT blocks over the stall threshold", true, false, false));
+            attributes.add(new MBeanAttributeInfo("LastEdtStall", "java.lang.String", "EDT stack trace of the last stall", true, false, false));
+            MBeanOperationInfo reset = new MBeanOperationInfo("reset", "Clears all histograms and stall counts",
+                    new MBeanParameterInfo[0], "void", MBeanOperationInfo.ACTION);
+            return new MBeanInfo(Jmx.class.getName(), "Weather simulator latency metrics",
+                    attributes.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[] {reset}, null);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package weather;
+
+import java.util.*;
+
+// Min/max bucketing of one WeatherBatch column against time: each bucket (one per pixel
+// column) keeps the extremes of the readings that fall in it, so spikes survive
+// downsampling. Per-block extremes are summarized once, incrementally as rows are appended,
+// so a bucket spanning many rows costs one step per BLOCK rows instead of one per row.
+final class MinMaxDownsampler {
+    private static final int BLOCK = 256;
+
+    private double[] min = new double[0];
+    private double[] max = new double[0];
+    private double low, high;
+    private WeatherBatch summarized;
+    private int summarizedVersion;
+    private final double[][] blockMin = new double[WeatherData.FIELD_COUNT][0];
+    private final double[][] blockMax = new double[WeatherData.FIELD_COUNT][0];
+    private final int[] blocks = new int[WeatherData.FIELD_COUNT];
+
+    // Returns the number of non-empty buckets; rows must be in time order
+    int downsample(WeatherBatch batch, int field, long from, long to, int buckets) {
+        if (buckets <= 0) return 0;
+        if (min.length < buckets) {
+            min = new double[buckets];
+            max = new double[buckets];
+        }
+        Arrays.fill(min, 0, buckets, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, 0, buckets, Double.NEGATIVE_INFINITY);
+        low = Double.POSITIVE_INFINITY;
+        high = Double.NEGATIVE_INFINITY;
+        summarize(batch, field);
+        double[] lows = blockMin[field], highs = blockMax[field];
+        int summarizedRows = blocks[field] * BLOCK;
+        long span = Math.max(1, to - from);
+        double[] column = batch.column(field);
+        int bit = 1 << field, filled = 0;
+        int i = batch.lowerBound(from), end = batch.lowerBound(to == Long.MAX_VALUE ? to : to + 1);
+        // Rows are time ordered, so each bucket is a contiguous run; binary search its end
+        // instead of dividing per row, leaving a tight min/max loop over the column
+        for (int b = 0; b < buckets && i < end; b++) {
+            int bucketEnd = b == buckets - 1 ? end
+                    : Math.min(end, batch.lowerBound(from + (long) ((double) span * (b + 1) / buckets)));
+            double lo = Double.POSITIVE_INFINITY, hi = Double.NEGATIVE_INFINITY;
+            // Raw rows up to a block boundary, whole summarized blocks, then the raw tail
+            for (; i < bucketEnd && i % BLOCK != 0; i++) {
+                if ((batch.presentMask(i) & bit) == 0) continue;
+                double v = column[i];
+                if (v < lo) lo = v;
+                if (v > hi) hi = v;
+            }
+            for (; i + BLOCK <= bucketEnd && i + BLOCK <= summarizedRows; i += BLOCK) {
+                int k = i / BLOCK;
+                if (lows[k] < lo) lo = lows[k];
+                if (highs[k] > hi) hi = highs[k];
+            }
+            for (; i < bucketEnd; i++) {
+                if ((batch.presentMask(i) & bit) == 0) continue;
+                double v = column[i];
+                if (v < lo) lo = v;
+                if (v > hi) hi = v;
+            }
+            if (lo <= hi) {
+                min[b] = lo;
+                max[b] = hi;
+                filled++;
+            }
+        }
+        for (int b = 0; b < buckets; b++) {
+            if (min[b] <= max[b]) {
+                low = Math.min(low, min[b]);
+                high = Math.max(high, max[b]);
+            }
+        }
+        return filled;
+    }
+
+    // Extends the per-block extremes to every complete block; starts over if rows moved
+    private void summarize(WeatherBatch batch, int field) {
+        if (batch != summarized || batch.version() != summarizedVersion) {
+            summarized = batch;
+            summarizedVersion = batch.version();
+            Arrays.fill(blocks, 0);
+        }
+        int complete = batch.size() / BLOCK;
+        if (blockMin[field].length < complete) {
+            int capacity = Math.max(complete, blockMin[field].length * 2);
+            blockMin[field] = Arrays.copyOf(blockMin[field], capacity);
+            blockMax[field] = Arrays.copyOf(blockMax[field], capacity);
+        }
+        double[] column = batch.column(field);
+        int bit = 1 << field;
+        for (int k = blocks[field]; k < complete; k++) {
+            double lo = Double.POSITIVE_INFINITY, hi = Double.NEGATIVE_INFINITY;
+            for (int i = k * BLOCK, end = i + BLOCK; i < end; i++) {
+                if ((batch.presentMask(i) & bit) == 0) continue;
+                double v = column[i];
+                if (v < lo) lo = v;
+                if (v > hi) hi = v;
+            }
+            blockMin[field][k] = lo;
+            blockMax[field][k] = hi;
+        }
+        blocks[field] = complete;
+    }
+
+    boolean has(int bucket) {
+        return min[bucket] <= max[bucket];
+    }
+
+    double min(int bucket) {
+        return min[bucket];
+    }
+
+    double max(int bucket) {
+        return max[bucket];
+    }
+
+    double low() {
+        return low;
+    }
+
+    double high() {
+        return high;
+    }
+}
@@ -0,0 +1,176 @@
+package weather;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+// Monte Carlo nowcast: perturbed copies of the current reading run forward HORIZON_STEPS with
+// the generator's station dynamics, members in parallel on the common pool, and are reduced
+// to percentile bands per field and time step. A run publishes partial results as each round
+// of members completes, so the fan charts appear quickly and sharpen; submitting a newer
+// reading cancels the run in flight at its next member or band check.
+final class Nowcast {
+    static final long STEP_MILLIS = 600_000L;
+    static final int HORIZON_STEPS = 144;  // 24 h
+    static final double[] QUANTILES = {0.05, 0.25, 0.5, 0.75, 0.95};
+    static final int P5 = 0, P25 = 1, MEDIAN = 2, P75 = 3, P95 = 4;
+    private static final int MEMBERS_PER_TASK = 16;
+    private static final int STEPS_PER_TASK = 8;
+    private static final int ROUNDS = 4;
+
+    // Bands for members run so far: bands[field][quantile][step], step 0 being the reading itself
+    static final class Result {
+        final long start;
+        final int members, totalMembers;
+        final double[][][] bands;
+
+        Result(long start, int members, int totalMembers, double[][][] bands) {
+            this.start = start;
+            this.members = members;
+            this.totalMembers = totalMembers;
+            this.bands = bands;
+        }
+
+        boolean complete() {
+            return members == totalMembers;
+        }
+    }
+
+    private final int members;
+    private final Consumer<Result> listener;
+    private final AtomicLong generation = new AtomicLong();
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "nowcast");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // The listener gets each partial and the final result on the coordinator thread
+    Nowcast(int members, Consumer<Result> listener) {
+        this.members = members;
+        this.listener = listener;
+    }
+
+    // Starts a nowcast from the reading, superseding any run still in progress
+    void submit(WeatherData current) {
+        WeatherData start = new WeatherData();
+        start.copyFrom(current);
+        long run = generation.incrementAndGet();
+        coordinator.execute(() -> run(start, members, () -> generation.get() != run, listener));
+    }
+
+    void cancel() {
+        generation.incrementAndGet();
+    }
+
+    // Synchronous full run on the caller's thread plus the common pool (headless rendering)
+    static Result forecast(WeatherData current, int members) {
+        Result[] last = new Result[1];
+        run(current, members, () -> false, r -> last[0] = r);
+        return last[0];
+    }
+
+    private static void run(WeatherData start, int members, BooleanSupplier cancelled, Consumer<Result> listener) {
+        // values[field][step * members + member]
+        double[][] values = new double[WeatherData.FIELD_COUNT][(HORIZON_STEPS + 1) * members];
+        // Members are seeded by reading and index, so each round extends the same ensemble
+        long seed = start.timestamp;
+        int done = 0;
+        for (int round = 1; round <= ROUNDS; round++) {
+            int upTo = (int) ((long) members * round / ROUNDS);
+            if (upTo == done) continue;
+            ForkJoinPool.commonPool().invoke(new MemberTask(start, seed, values, members, done, upTo, cancelled));
+            done = upTo;
+            double[][][] bands = new double[WeatherData.FIELD_COUNT][QUANTILES.length][HORIZON_STEPS + 1];
+            ForkJoinPool.commonPool().invoke(new BandTask(values, members, done, bands, 0, HORIZON_STEPS + 1, cancelled));
+            if (cancelled.getAsBoolean()) return;
+            listener.accept(new Result(start.timestamp, done, members, bands));
+        }
+    }
+
+    private static final class MemberTask extends RecursiveAction {
+        private final WeatherData start;
+        private final long seed;
+        private final double[][] values;
+        private final int members, from, to;
+        private final BooleanSupplier cancelled;
+
+        MemberTask(WeatherData start, long seed, double[][] values, int members, int from, int to, BooleanSupplier cancelled) {
+            this.start = start;
+            this.seed = seed;
+            this.values = values;
+            this.members = members;
+            this.from = from;
+            this.to = to;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected void compute() {
+            if (cancelled.getAsBoolean()) return;
+            if (to - from > MEMBERS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new MemberTask(start, seed, values, members, from, mid, cancelled),
+                          new MemberTask(start, seed, values, members, mid, to, cancelled));
+                return;
+            }
+            WeatherData state = new WeatherData();
+            for (int m = from; m < to; m++) {
+                WeatherGenerator.Station station = new WeatherGenerator.Station(
+                        new SplittableRandom(WeatherGenerator.seedFor(seed, m)), start, STEP_MILLIS);
+                for (int f = 0; f < WeatherData.FIELD_COUNT; f++) values[f][m] = start.get(f);
+                for (int t = 1; t <= HORIZON_STEPS; t++) {
+                    station.next(state);
+                    // Stations report rain per step; scale it to the hourly amount readings use
+                    state.precipitation *= 3_600_000.0 / STEP_MILLIS;
+                    for (int f = 0; f < WeatherData.FIELD_COUNT; f++) values[f][t * members + m] = state.get(f);
+                }
+            }
+        }
+    }
+
+    // Sorts each (field, step) slice of the first `done` members and reads off the quantiles
+    private static final class BandTask extends RecursiveAction {
+        private final double[][] values;
+        private final int members, done;
+        private final double[][][] bands;
+        private final int from, to;
+        private final BooleanSupplier cancelled;
+
+        BandTask(double[][] values, int members, int done, double[][][] bands, int from, int to, BooleanSupplier cancelled) {
+            this.values = values;
+            this.members = members;
+            this.done = done;
+            this.bands = bands;
+            this.from = from;
+            this.to = to;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected void compute() {
+            if (cancelled.getAsBoolean()) return;
+            if (to - from > STEPS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BandTask(values, members, done, bands, from, mid, cancelled),
+                          new BandTask(values, members, done, bands, mid, to, cancelled));
+                return;
+            }
+            double[] slice = new double[done];
+            for (int f = 0; f < WeatherData.FIELD_COUNT; f++) {
+                for (int t = from; t < to; t++) {
+                    System.arraycopy(values[f], t * members, slice, 0, done);
+                    Arrays.sort(slice);
+                    for (int q = 0; q < QUANTILES.length; q++) {
+                        bands[f][q][t] = slice[(int) Math.min(done - 1, Math.round(QUANTILES[q] * (done - 1)))];
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package weather;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Streaming CSV / NDJSON importer. The file is read through a FileChannel in 1 MB chunks and
+// numbers are parsed straight from the bytes, without intermediate Strings. Parsed rows fill
+// WeatherBatch chunks that are range-checked column by column, then handed to a writer thread
+// through a bounded queue, so parsing stalls whenever the store falls behind.
+//
+// CSV needs a header naming a timestamp column and any of the WeatherData.FIELD_NAMES;
+// NDJSON takes one flat object per line with the same keys. Timestamps are epoch millis or
+// ISO-8601 ("2024-05-01T12:00:00Z", optional fraction and +hh:mm offset). Empty cells and
+// JSON nulls mark a field as absent.
+final class ObservationImporter {
+    private static final int CHUNK_BYTES = 1 << 20;
+    private static final int BATCH_ROWS = 1 << 15;
+    private static final int QUEUE_DEPTH = 4;
+    private static final int TIMESTAMP_COLUMN = -1;
+    private static final int IGNORED_COLUMN = -2;
+    private static final byte[] TIMESTAMP_KEY = "timestamp".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[][] FIELD_KEYS = new byte[WeatherData.FIELD_COUNT][];
+    private static final double[] POW10 = new double[23];
+    static {
+        for (int f = 0; f < FIELD_KEYS.length; f++) FIELD_KEYS[f] = WeatherData.FIELD_NAMES[f].getBytes(StandardCharsets.US_ASCII);
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) POW10[i] = POW10[i - 1] * 10;
+    }
+    // Marks the end of the stream for the writer thread
+    private static final WeatherBatch END = new WeatherBatch(0);
+
+    static final class Result {
+        long rows, imported, rejectedParse, rejectedRange, rejectedOrder, nanos;
+
+        long rejected() {
+            return rejectedParse + rejectedRange + rejectedOrder;
+        }
+
+        double rowsPerSecond() {
+            return rows / Math.max(nanos / 1e9, 1e-9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,d rows, %,d imported, %,d rejected (%,d unparsable, %,d out of range, %,d out of order) in %.3f s, %,.0f rows/s",
+                    rows, imported, rejected(), rejectedParse, rejectedRange, rejectedOrder, nanos / 1e9, rowsPerSecond());
+        }
+    }
+
+    private final ObservationStore store;
+    // Per-row parse state, reused across rows
+    private final double[] values = new double[WeatherData.FIELD_COUNT];
+    private int rowMask;
+    private long rowTimestamp;
+    private int[] csvColumns;
+    private volatile IOException writeError;
+
+    ObservationImporter(ObservationStore store) {
+        this.store = store;
+    }
+
+    Result importFile(File file) throws IOException, InterruptedException {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        boolean json = name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json");
+        Result result = new Result();
+        long start = System.nanoTime();
+        long latest = store.size() > 0 ? store.timestampAt(store.size() - 1) : Long.MIN_VALUE;
+
+        BlockingQueue<WeatherBatch> free = new ArrayBlockingQueue<>(QUEUE_DEPTH);
+        BlockingQueue<WeatherBatch> full = new ArrayBlockingQueue<>(QUEUE_DEPTH);
+        for (int i = 0; i < QUEUE_DEPTH; i++) free.add(new WeatherBatch(BATCH_ROWS));
+        writeError = null;
+        Thread writer = new Thread(() -> {
+            try {
+                for (WeatherBatch batch; (batch = full.take()) != END; ) {
+                    if (writeError == null) {
+                        try {
+                            store.append(batch);
+                        } catch (IOException e) {
+                            writeError = e;
+                        }
+                    }
+                    batch.clear();
+                    free.put(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "observation-import-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        boolean[] keep = new boolean[BATCH_ROWS];
+        csvColumns = null;
+        try (FileChannel channel = FileChannel.open(file.toPath())) {
+            ByteBuffer chunk = ByteBuffer.allocate(CHUNK_BYTES);
+            byte[] buf = chunk.array();
+            WeatherBatch batch = free.take();
+            boolean eof = false;
+            while (!eof) {
+                eof = channel.read(chunk) < 0;
+                int limit = chunk.position(), lineStart = 0;
+                for (int i = 0; i < limit; i++) {
+                    if (buf[i] != '\n') continue;
+                    parseLine(buf, lineStart, i, json, batch, result);
+                    lineStart = i + 1;
+                    if (batch.size() == BATCH_ROWS) {
+                        latest = validate(batch, keep, latest, result);
+                        full.put(batch);   // blocks while the writer is QUEUE_DEPTH batches behind
+                        if (writeError != null) throw writeError;
+                        batch = free.take();
+                    }
+                }
+                if (eof && lineStart < limit) {
+                    parseLine(buf, lineStart, limit, json, batch, result);
+                    lineStart = limit;
+                }
+                if (lineStart == 0 && limit == buf.length) throw new IOException("Line longer than " + CHUNK_BYTES + " bytes");
+                // Carry the partial last line over to the front of the buffer
+                System.arraycopy(buf, lineStart, buf, 0, limit - lineStart);
+                chunk.position(limit - lineStart);
+            }
+            latest = validate(batch, keep, latest, result);
+            full.put(batch);
+        } finally {
+            full.put(END);
+            writer.join();
+        }
+        if (writeError != null) throw writeError;
+        result.nanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private void parseLine(byte[] buf, int from, int to, boolean json, WeatherBatch batch, Result result) throws IOException {
+        if (to > from && buf[to - 1] == '\r') to--;
+        while (from < to && buf[from] <= ' ') from++;
+        if (from == to) return;
+        if (!json && csvColumns == null) {
+            csvColumns = parseHeader(new String(buf, from, to - from, StandardCharsets.UTF_8));
+            return;
+        }
+        result.rows++;
+        rowMask = 0;
+        rowTimestamp = Long.MIN_VALUE;
+        boolean ok = json ? parseJsonRow(buf, from, to) : parseCsvRow(buf, from, to);
+        if (!ok || rowTimestamp == Long.MIN_VALUE) {
+            result.rejectedParse++;
+            return;
+        }
+        batch.add(rowTimestamp, rowMask, values[0], values[1], values[2], values[3], values[4], values[5]);
+    }
+
+    private static int[] parseHeader(String header) throws IOException {
+        String[] names = header.split(",");
+        int[] columns = new int[names.length];
+        boolean hasTimestamp = false;
+        for (int c = 0; c < names.length; c++) {
+            String name = names[c].trim().replace("\"", "");
+            if (name.equals("timestamp")) {
+                columns[c] = TIMESTAMP_COLUMN;
+                hasTimestamp = true;
+            } else {
+                int field = WeatherData.fieldIndex(name);
+                columns[c] = field >= 0 ? field : IGNORED_COLUMN;
+            }
+        }
+        if (!hasTimestamp) throw new IOException("CSV header has no timestamp column: " + header);
+        return columns;
+    }
+
+    private boolean parseCsvRow(byte[] buf, int from, int to) {
+        int column = 0;
+        for (int start = from; start <= to && column < csvColumns.length; column++) {
+            int end = start;
+            while (end < to && buf[end] != ',') end++;
+            if (!parseValue(buf, start, end, csvColumns[column])) return false;
+            start = end + 1;
+        }
+        return true;
+    }
+
+    // Flat objects only: string, number, null or boolean values
+    private boolean parseJsonRow(byte[] buf, int from, int to) {
+        int i = skipSpace(buf, from, to);
+        if (i >= to || buf[i++] != '{') return false;
+        while (true) {
+            i = skipSpace(buf, i, to);
+            if (i < to && buf[i] == '}') return true;
+            if (i >= to || buf[i] != '"') return false;
+            int keyStart = ++i;
+            while (i < to && buf[i] != '"') {
+                if (buf[i] == '\\') return false;
+                i++;
+            }
+            if (i >= to) return false;
+            int column = jsonColumn(buf, keyStart, i);
+            i = skipSpace(buf, i + 1, to);
+            if (i >= to || buf[i++] != ':') return false;
+            i = skipSpace(buf, i, to);
+            int valueStart = i, valueEnd;
+            if (i < to && buf[i] == '"') {
+                valueStart = ++i;
+                while (i < to && buf[i] != '"') i++;
+                if (i >= to) return false;
+                valueEnd = i++;
+            } else {
+                while (i < to && buf[i] != ',' && buf[i] != '}' && buf[i] > ' ') i++;
+                valueEnd = i;
+                if (matches(buf, valueStart, valueEnd, "null")) valueEnd = valueStart;
+            }
+            if (!parseValue(buf, valueStart, valueEnd, column)) return false;
+            i = skipSpace(buf, i, to);
+            if (i < to && buf[i] == ',') i++;
+            else if (i >= to || buf[i] != '}') return false;
+        }
+    }
+
+    private static int jsonColumn(byte[] buf, int from, int to) {
+        if (matches(buf, from, to, TIMESTAMP_KEY)) return TIMESTAMP_COLUMN;
+        for (int f = 0; f < FIELD_KEYS.length; f++) {
+            if (matches(buf, from, to, FIELD_KEYS[f])) return f;
+        }
+        return IGNORED_COLUMN;
+    }
+
+    private boolean parseValue(byte[] buf, int from, int to, int column) {
+        if (column == IGNORED_COLUMN) return true;
+        while (from < to && buf[from] <= ' ') from++;
+        while (to > from && buf[to - 1] <= ' ') to--;
+        if (to - from >= 2 && buf[from] == '"' && buf[to - 1] == '"') {
+            from++;
+            to--;
+        }
+        if (from == to) return column != TIMESTAMP_COLUMN;  // absent field
+        if (column == TIMESTAMP_COLUMN) {
+            rowTimestamp = parseTimestamp(buf, from, to);
+            return rowTimestamp != Long.MIN_VALUE;
+        }
+        double value = parseNumber(buf, from, to);
+        if (Double.isNaN(value)) return false;
+        values[column] = value;
+        rowMask |= 1 << column;
+        return true;
+    }
+
+    // Range and ordering checks, one column at a time, then compaction of the survivors.
+    // Returns the timestamp of the last accepted row.
+    private static long validate(WeatherBatch batch, boolean[] keep, long latest, Result result) {
+        int n = batch.size();
+        Arrays.fill(keep, 0, n, true);
+        for (int f = 0; f < WeatherData.FIELD_COUNT; f++) {
+            double[] column = batch.column(f);
+            double min = WeatherData.VALID_MIN[f], max = WeatherData.VALID_MAX[f];
+            int bit = 1 << f;
+            boolean integral = f == WeatherData.UV_INDEX;
+            for (int i = 0; i < n; i++) {
+                double v = column[i];
+                boolean bad = v < min || v > max || (integral && v != Math.rint(v));
+                if (bad && (batch.presentMask(i) & bit) != 0) keep[i] = false;
+            }
+        }
+        long[] timestamps = batch.timestamps();
+        for (int i = 0; i < n; i++) {
+            if (!keep[i]) {
+                result.rejectedRange++;
+            } else if (timestamps[i] < latest) {
+                keep[i] = false;
+                result.rejectedOrder++;
+            } else {
+                latest = timestamps[i];
+            }
+        }
+        result.imported += batch.retain(keep);
+        return latest;
+    }
+
+    // Decimal number in buf[from, to), or NaN if it isn't one. Up to 15 significant digits
+    // with a small exponent convert exactly via one multiply/divide by a power of ten;
+    // anything longer falls back to Double.parseDouble.
+    static double parseNumber(byte[] buf, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buf[i] == '-' || buf[i] == '+')) negative = buf[i++] == '-';
+        long mantissa = 0;
+        int digits = 0, scale = 0;
+        boolean any = false;
+        for (; i < to && buf[i] >= '0' && buf[i] <= '9'; i++) {
+            any = true;
+            if (digits < 18) {
+                mantissa = mantissa * 10 + (buf[i] - '0');
+                if (mantissa != 0) digits++;
+            } else {
+                scale++;
+            }
+        }
+        if (i < to && buf[i] == '.') {
+            for (i++; i < to && buf[i] >= '0' && buf[i] <= '9'; i++) {
+                any = true;
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (buf[i] - '0');
+                    if (mantissa != 0) digits++;
+                    scale--;
+                }
+            }
+        }
+        if (!any) return Double.NaN;
+        if (i < to && (buf[i] == 'e' || buf[i] == 'E')) {
+            i++;
+            boolean negativeExp = false;
+            if (i < to && (buf[i] == '-' || buf[i] == '+')) negativeExp = buf[i++] == '-';
+            int exp = 0;
+            boolean expDigits = false;
+            for (; i < to && buf[i] >= '0' && buf[i] <= '9'; i++) {
+                exp = Math.min(exp * 10 + (buf[i] - '0'), 10_000);
+                expDigits = true;
+            }
+            if (!expDigits) return Double.NaN;
+            scale += negativeExp ? -exp : exp;
+        }
+        if (i != to) return Double.NaN;
+        if (digits > 15 || scale < -22 || scale > 22) {
+            return Double.parseDouble(new String(buf, from, to - from, StandardCharsets.US_ASCII));
+        }
+        double value = scale < 0 ? mantissa / POW10[-scale] : mantissa * POW10[scale];
+        return negative ? -value : value;
+    }
+
+    // Epoch millis, or ISO-8601 date-time; Long.MIN_VALUE if neither
+    static long parseTimestamp(byte[] buf, int from, int to) {
+        if (to - from < 10 || buf[from + 4] != '-') {
+            int i = from;
+            boolean negative = i < to && buf[i] == '-';
+            if (negative) i++;
+            if (i == to || to - i > 18) return Long.MIN_VALUE;
+            long millis = 0;
+            for (; i < to; i++) {
+                if (buf[i] < '0' || buf[i] > '9') return Long.MIN_VALUE;
+                millis = millis * 10 + (buf[i] - '0');
+            }
+            return negative ? -millis : millis;
+        }
+        int year = digits(buf, from, 4), month = digits(buf, from + 5, 2), day = digits(buf, from + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31 || buf[from + 7] != '-') return Long.MIN_VALUE;
+        long millis = daysFromCivil(year, month, day) * 86_400_000L;
+        int i = from + 10;
+        if (i < to && (buf[i] == 'T' || buf[i] == ' ')) {
+            int hour = to - i >= 6 ? digits(buf, i + 1, 2) : -1;
+            int minute = to - i >= 6 ? digits(buf, i + 4, 2) : -1;
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || buf[i + 3] != ':') return Long.MIN_VALUE;
+            millis += hour * 3_600_000L + minute * 60_000L;
+            i += 6;
+            if (i < to && buf[i] == ':') {
+                int second = to - i >= 3 ? digits(buf, i + 1, 2) : -1;
+                if (second < 0 || second > 60) return Long.MIN_VALUE;
+                millis += second * 1000L;
+                i += 3;
+                if (i < to && buf[i] == '.') {
+                    int scale = 100;
+                    for (i++; i < to && buf[i] >= '0' && buf[i] <= '9'; i++, scale /= 10) millis += (buf[i] - '0') * scale;
+                }
+            }
+        }
+        if (i < to && buf[i] == 'Z') {
+            i++;
+        } else if (i < to && (buf[i] == '+' || buf[i] == '-')) {
+            int hours = to - i >= 6 ? digits(buf, i + 1, 2) : -1;
+            int minutes = to - i >= 6 ? digits(buf, i + 4, 2) : -1;
+            if (hours < 0 || minutes < 0 || buf[i + 3] != ':') return Long.MIN_VALUE;
+            long offset = hours * 3_600_000L + minutes * 60_000L;
+            millis -= buf[i] == '+' ? offset : -offset;
+            i += 6;
+        }
+        return i == to ? millis : Long.MIN_VALUE;
+    }
+
+    // Days since 1970-01-01 for a proleptic Gregorian date
+    private static long daysFromCivil(int year, int month, int day) {
+        year -= month <= 2 ? 1 : 0;
+        int era = (year >= 0 ? year : year - 399) / 400;
+        int yearOfEra = year - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468;
+    }
+
+    private static int digits(byte[] buf, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            if (buf[i] < '0' || buf[i] > '9') return -1;
+            value = value * 10 + (buf[i] - '0');
+        }
+        return value;
+    }
+
+    private static int skipSpace(byte[] buf, int i, int to) {
+        while (i < to && buf[i] <= ' ') i++;
+        return i;
+    }
+
+    private static boolean matches(byte[] buf, int from, int to, byte[] text) {
+        if (to - from != text.length) return false;
+        for (int i = 0; i < text.length; i++) {
+            if (buf[from + i] != text[i]) return false;
+        }
+        return true;
+    }
+
+    private static boolean matches(byte[] buf, int from, int to, String ascii) {
+        if (to - from != ascii.length()) return false;
+        for (int i = 0; i < ascii.length(); i++) {
+            if (buf[from + i] != ascii.charAt(i)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,328 @@
+package weather;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+// Append-only observation log. Records are fixed-width and live in memory-mapped
+// segment files of RECORDS_PER_SEGMENT slots; every segment except the last is full,
+// so a global record index maps to (segment, slot) arithmetically. Timestamps must be
+// non-decreasing, which lets range queries binary search a sparse per-segment index.
+// A segment's header count is its commit point: records are written first and the count
+// published after them, and new segments appear only fully initialized, via a temp file
+// and an atomic rename, so a crash never exposes a torn record or a half-made segment.
+final class ObservationStore implements Closeable {
+    // long timestamp, 5 x double, int uvIndex, int presence mask
+    static final int RECORD_SIZE = 56;
+    static final int RECORDS_PER_SEGMENT = 1 << 16;
+    static final int INDEX_STRIDE = 256;
+    private static final int HEADER_SIZE = 16;
+    private static final int MAGIC = 0x57534547; // "WSEG"
+    private static final long SEGMENT_BYTES = HEADER_SIZE + (long) RECORD_SIZE * RECORDS_PER_SEGMENT;
+
+    private final File dir;
+    private final ArrayList<Segment> segments = new ArrayList<>();
+    private volatile long size;
+    // Records covered by the segment header counts; size runs ahead of it within an append
+    private long committed;
+    // First segment with writes not yet forced to disk
+    private int unforcedSegment;
+
+    private ObservationStore(File dir) {
+        this.dir = dir;
+    }
+
+    static ObservationStore open(File dir) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+        // A leftover temp file is a segment whose creation never completed
+        File[] partial = dir.listFiles((d, name) -> name.endsWith(".seg.tmp"));
+        if (partial != null) for (File f : partial) Files.delete(f.toPath());
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".seg"));
+        if (files == null) throw new IOException("Cannot list " + dir);
+        Arrays.sort(files);
+        ObservationStore store = new ObservationStore(dir);
+        for (File f : files) store.segments.add(new Segment(f));
+        int n = store.segments.size();
+        // Segments fill and publish their counts in order, so nothing after the first segment
+        // that isn't full was committed; a crash after rolling over (or during deferred
+        // appends spanning segments) can leave such tails behind
+        while (n >= 2 && store.segments.get(n - 2).count() < RECORDS_PER_SEGMENT) {
+            Files.delete(store.segments.remove(--n).file.toPath());
+        }
+        if (n > 0) {
+            // Only the tail segment is mapped up front; full segments are mapped on first read
+            store.size = (long) (n - 1) * RECORDS_PER_SEGMENT + store.segments.get(n - 1).count();
+            store.committed = store.size;
+            store.unforcedSegment = n - 1;
+        }
+        return store;
+    }
+
+    long size() {
+        return size;
+    }
+
+    synchronized long append(WeatherData data) throws IOException {
+        long index = appendRow(data.timestamp, data.present, data.temperature, data.humidity, data.windSpeed,
+                data.precipitation, data.pressure, data.uvIndex);
+        commit(false, false);
+        return index;
+    }
+
+    synchronized void append(WeatherBatch batch) throws IOException {
+        append(batch, false);
+    }
+
+    // Appends the rows and publishes them with one header update per segment touched. With
+    // force, the records are on disk before the counts that expose them, and the counts before
+    // this returns; otherwise durability is left to the OS or a later force().
+    synchronized void append(WeatherBatch batch, boolean force) throws IOException {
+        try {
+            appendRows(batch);
+        } finally {
+            // Rows before a rejected one still count
+            commit(force, force);
+        }
+    }
+
+    // Appends the rows without publishing them in the segment headers. They are readable in
+    // this process at once, but only reach the on-disk counts in the next force(), after the
+    // records themselves, so a crash never exposes records that were not written out.
+    synchronized void appendDeferred(WeatherBatch batch) throws IOException {
+        appendRows(batch);
+    }
+
+    private void appendRows(WeatherBatch batch) throws IOException {
+        for (int i = 0; i < batch.size(); i++) {
+            appendRow(batch.timestamp(i), batch.presentMask(i),
+                    batch.value(i, WeatherData.TEMPERATURE), batch.value(i, WeatherData.HUMIDITY),
+                    batch.value(i, WeatherData.WIND_SPEED), batch.value(i, WeatherData.PRECIPITATION),
+                    batch.value(i, WeatherData.PRESSURE), (int) batch.value(i, WeatherData.UV_INDEX));
+        }
+    }
+
+    // Flushes every write since the last force to disk, then publishes and flushes the counts
+    // of deferred appends
+    synchronized void force() {
+        for (int s = unforcedSegment; s < segments.size(); s++) segments.get(s).buffer.force();
+        commit(false, true);
+        unforcedSegment = Math.max(0, segments.size() - 1);
+    }
+
+    // Publishes appended rows in the segment headers, optionally forcing the records before
+    // the counts and the counts themselves
+    private void commit(boolean forceRecords, boolean forceCounts) {
+        for (long from = committed; from < size; ) {
+            int s = (int) (from / RECORDS_PER_SEGMENT);
+            int start = (int) (from % RECORDS_PER_SEGMENT);
+            int end = (int) Math.min(RECORDS_PER_SEGMENT, size - (long) s * RECORDS_PER_SEGMENT);
+            MappedByteBuffer buf = segments.get(s).buffer;
+            if (forceRecords) buf.force(HEADER_SIZE + start * RECORD_SIZE, (end - start) * RECORD_SIZE);
+            buf.putInt(4, end);
+            if (forceCounts) buf.force(0, HEADER_SIZE);
+            from = (long) s * RECORDS_PER_SEGMENT + end;
+        }
+        committed = size;
+        if (forceRecords) unforcedSegment = Math.max(0, segments.size() - 1);
+    }
+
+    private long appendRow(long ts, int present, double temperature, double humidity, double windSpeed,
+                           double precipitation, double pressure, int uvIndex) throws IOException {
+        if (size > 0 && ts < timestampAt(size - 1))
+            throw new IllegalArgumentException("Observation at " + ts + " is older than the latest record");
+
+        int slot = (int) (size % RECORDS_PER_SEGMENT);
+        if (slot == 0) {
+            segments.add(Segment.create(new File(dir, String.format("%08d.seg", segments.size()))));
+        }
+        Segment seg = segments.get(segments.size() - 1);
+        MappedByteBuffer buf = seg.map();
+        int pos = HEADER_SIZE + slot * RECORD_SIZE;
+        buf.putLong(pos, ts);
+        buf.putDouble(pos + 8, temperature);
+        buf.putDouble(pos + 16, humidity);
+        buf.putDouble(pos + 24, windSpeed);
+        buf.putDouble(pos + 32, precipitation);
+        buf.putDouble(pos + 40, pressure);
+        buf.putInt(pos + 48, uvIndex);
+        buf.putInt(pos + 52, present);
+        return size++;
+    }
+
+    WeatherData latest() throws IOException {
+        long n = size;
+        return n == 0 ? null : get(n - 1);
+    }
+
+    WeatherData get(long index) throws IOException {
+        WeatherData data = new WeatherData();
+        readInto(index, data);
+        return data;
+    }
+
+    void readInto(long index, WeatherData dst) throws IOException {
+        checkIndex(index);
+        MappedByteBuffer buf = segments.get((int) (index / RECORDS_PER_SEGMENT)).map();
+        int pos = HEADER_SIZE + (int) (index % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+        dst.timestamp = buf.getLong(pos);
+        dst.temperature = buf.getDouble(pos + 8);
+        dst.humidity = buf.getDouble(pos + 16);
+        dst.windSpeed = buf.getDouble(pos + 24);
+        dst.precipitation = buf.getDouble(pos + 32);
+        dst.pressure = buf.getDouble(pos + 40);
+        dst.uvIndex = buf.getInt(pos + 48);
+        dst.present = buf.getInt(pos + 52);
+    }
+
+    long timestampAt(long index) throws IOException {
+        checkIndex(index);
+        MappedByteBuffer buf = segments.get((int) (index / RECORDS_PER_SEGMENT)).map();
+        return buf.getLong(HEADER_SIZE + (int) (index % RECORDS_PER_SEGMENT) * RECORD_SIZE);
+    }
+
+    // Index of the first record with timestamp >= the given time, or size() if none
+    long lowerBound(long timestamp) throws IOException {
+        long n = size;
+        if (n == 0 || timestampAt(n - 1) < timestamp) return n;
+        // Find the last segment whose first record is still before the target
+        int lo = 0, hi = (int) ((n - 1) / RECORDS_PER_SEGMENT);
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (timestampAt((long) mid * RECORDS_PER_SEGMENT) < timestamp) lo = mid;
+            else hi = mid - 1;
+        }
+        long base = (long) lo * RECORDS_PER_SEGMENT;
+        int count = (int) Math.min(RECORDS_PER_SEGMENT, n - base);
+        // Narrow to one INDEX_STRIDE block via the sparse index, then scan the block
+        long[] sparse = segments.get(lo).sparseIndex(count);
+        int blocks = (count + INDEX_STRIDE - 1) / INDEX_STRIDE;
+        int b = Arrays.binarySearch(sparse, 0, blocks, timestamp);
+        if (b < 0) {
+            b = Math.max(0, -b - 2);
+        } else {
+            // Equal timestamps may spill back into the previous block
+            while (b > 0 && sparse[b - 1] == timestamp) b--;
+            b = Math.max(0, b - 1);
+        }
+        long i = base + (long) b * INDEX_STRIDE;
+        while (i < n && timestampAt(i) < timestamp) i++;
+        return i;
+    }
+
+    // All observations with from <= timestamp < to
+    List<WeatherData> range(long from, long to) throws IOException {
+        List<WeatherData> result = new ArrayList<>();
+        long n = size;
+        for (long i = lowerBound(from); i < n && timestampAt(i) < to; i++) {
+            result.add(get(i));
+        }
+        return result;
+    }
+
+    // Appends all observations with from <= timestamp < to to the batch; returns the count read
+    int readRange(long from, long to, WeatherBatch batch) throws IOException {
+        long n = size;
+        int start = batch.size();
+        for (long i = lowerBound(from); i < n; i++) {
+            MappedByteBuffer buf = segments.get((int) (i / RECORDS_PER_SEGMENT)).map();
+            int pos = HEADER_SIZE + (int) (i % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+            if (buf.getLong(pos) >= to) break;
+            addRecord(buf, pos, batch);
+        }
+        return batch.size() - start;
+    }
+
+    // Appends up to count records starting at index to the batch; returns the count read
+    int read(long index, int count, WeatherBatch batch) throws IOException {
+        long end = Math.min(size, index + count);
+        for (long i = index; i < end; i++) {
+            MappedByteBuffer buf = segments.get((int) (i / RECORDS_PER_SEGMENT)).map();
+            addRecord(buf, HEADER_SIZE + (int) (i % RECORDS_PER_SEGMENT) * RECORD_SIZE, batch);
+        }
+        return (int) Math.max(0, end - index);
+    }
+
+    private static void addRecord(MappedByteBuffer buf, int pos, WeatherBatch batch) {
+        batch.add(buf.getLong(pos), buf.getInt(pos + 52), buf.getDouble(pos + 8), buf.getDouble(pos + 16),
+                buf.getDouble(pos + 24), buf.getDouble(pos + 32), buf.getDouble(pos + 40), buf.getInt(pos + 48));
+    }
+
+    private void checkIndex(long index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Record " + index + " of " + size);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment seg : segments) seg.close();
+    }
+
+    private static final class Segment {
+        private final File file;
+        private MappedByteBuffer buffer;
+        private long[] sparse;
+        // Slots the sparse index covers. Only readers extend it, up to the records they can see,
+        // so an append racing the first build can't leave a block out.
+        private int indexed;
+
+        Segment(File file) {
+            this.file = file;
+        }
+
+        // Writes the empty segment under a temp name and renames it into place once it is on disk
+        static Segment create(File file) throws IOException {
+            File tmp = new File(file.getPath() + ".tmp");
+            try (RandomAccessFile raf = new RandomAccessFile(tmp, "rw");
+                 FileChannel channel = raf.getChannel()) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(0, MAGIC).putInt(4, 0);
+                channel.write(header, 0);
+                raf.setLength(SEGMENT_BYTES);
+                channel.force(true);
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            Segment seg = new Segment(file);
+            seg.map();
+            return seg;
+        }
+
+        synchronized MappedByteBuffer map() throws IOException {
+            if (buffer == null) {
+                try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+                     FileChannel channel = raf.getChannel()) {
+                    if (channel.size() != SEGMENT_BYTES) throw new IOException("Not an observation segment: " + file);
+                    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_BYTES);
+                    buffer.order(ByteOrder.LITTLE_ENDIAN);
+                    if (buffer.getInt(0) != MAGIC) throw new IOException("Not an observation segment: " + file);
+                }
+            }
+            return buffer;
+        }
+
+        int count() throws IOException {
+            return map().getInt(4);
+        }
+
+        // Timestamp of every INDEX_STRIDE-th record, built lazily and extended to cover at least
+        // the first count records
+        synchronized long[] sparseIndex(int count) throws IOException {
+            if (sparse == null) sparse = new long[RECORDS_PER_SEGMENT / INDEX_STRIDE];
+            if (count > indexed) {
+                MappedByteBuffer buf = map();
+                for (int slot = (indexed + INDEX_STRIDE - 1) / INDEX_STRIDE * INDEX_STRIDE; slot < count; slot += INDEX_STRIDE) {
+                    sparse[slot / INDEX_STRIDE] = buf.getLong(HEADER_SIZE + slot * RECORD_SIZE);
+                }
+                indexed = count;
+            }
+            return sparse;
+        }
+
+        synchronized void close() {
+            buffer = null;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package weather;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.*;
+
+// Pooled precipitation particles held in parallel primitive arrays. A particle that leaves
+// the panel is recycled by swapping the last live particle into its slot, and each frame
+// is plotted straight into an ARGB raster that is composited with a single drawImage.
+final class ParticleSystem {
+    enum Kind {
+        // color, min/max fall speed (px per step), streak length, dot size, sideways sway
+        RAIN(RenderAssets.RAIN, 5, 15, 10, 1, 0),
+        SNOW(RenderAssets.SNOW, 1, 3, 0, 2, 1.5f),
+        HAIL(RenderAssets.HAIL, 12, 20, 0, 3, 0);
+
+        final int argb;
+        final float minSpeed, maxSpeed, sway;
+        final int streak, size;
+
+        Kind(Color color, float minSpeed, float maxSpeed, int streak, int size, float sway) {
+            // The raster is premultiplied, so bake the alpha into the channels once
+            int a = color.getAlpha();
+            argb = a << 24 | (color.getRed() * a / 255) << 16 | (color.getGreen() * a / 255) << 8 | color.getBlue() * a / 255;
+            this.minSpeed = minSpeed;
+            this.maxSpeed = maxSpeed;
+            this.streak = streak;
+            this.size = size;
+            this.sway = sway;
+        }
+    }
+
+    static final int MAX_PARTICLES = 150_000;
+    // Particles per mm of precipitation on a 1000x700 panel
+    private static final double DENSITY_PER_MM = 1000;
+
+    private final Kind kind;
+    private final SplittableRandom rng;
+    private float[] x = new float[256], y = new float[256], vy = new float[256], phase = new float[256];
+    private int count;
+    private BufferedImage layer;
+    private int[] pixels;
+
+    ParticleSystem(Kind kind, long seed) {
+        this.kind = kind;
+        this.rng = new SplittableRandom(seed);
+    }
+
+    static int densityFor(double precipitation, int width, int height) {
+        if (precipitation <= 0 || width <= 0 || height <= 0) return 0;
+        double n = precipitation * DENSITY_PER_MM * ((double) width * height / (1000.0 * 700.0));
+        return (int) Math.min(MAX_PARTICLES, Math.max(1, n));
+    }
+
+    int count() {
+        return count;
+    }
+
+    // Advances one step; spawns toward `target` live particles at the rate that keeps
+    // the column steady once the first particles reach the bottom. wind is px per step.
+    void step(int width, int height, int target, float wind) {
+        if (width <= 0 || height <= 0) return;
+        float meanSpeed = (kind.minSpeed + kind.maxSpeed) / 2;
+        int spawn = Math.min(target - count, Math.max(1, (int) (target * meanSpeed / (height + kind.streak))));
+        if (spawn > 0) {
+            ensureCapacity(count + spawn);
+            // Widen the spawn band upwind so slanted precipitation still covers the panel
+            float drift = height * wind / meanSpeed;
+            for (int i = 0; i < spawn; i++) {
+                int p = count++;
+                x[p] = (float) (rng.nextDouble() * (width + Math.abs(drift))) - Math.max(0, drift);
+                y[p] = -kind.streak - (float) (rng.nextDouble() * meanSpeed);
+                vy[p] = kind.minSpeed + (float) rng.nextDouble() * (kind.maxSpeed - kind.minSpeed);
+                phase[p] = (float) (rng.nextDouble() * Math.PI * 2);
+            }
+        }
+        float[] px = x, py = y, pvy = vy, pphase = phase;
+        float sway = kind.sway;
+        for (int i = 0; i < count; ) {
+            py[i] += pvy[i];
+            px[i] += wind;
+            if (sway != 0) {
+                pphase[i] += 0.1f;
+                px[i] += sway * (float) Math.sin(pphase[i]);
+            }
+            if (py[i] > height) {
+                // Swap-remove: move the last live particle here and re-examine this slot
+                int last = --count;
+                px[i] = px[last];
+                py[i] = py[last];
+                pvy[i] = pvy[last];
+                pphase[i] = pphase[last];
+            } else {
+                i++;
+            }
+        }
+    }
+
+    void draw(Graphics2D g2d, int width, int height) {
+        if (count == 0 || width <= 0 || height <= 0) return;
+        if (layer == null || layer.getWidth() != width || layer.getHeight() != height) {
+            layer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+            pixels = ((DataBufferInt) layer.getRaster().getDataBuffer()).getData();
+        } else {
+            Arrays.fill(pixels, 0);
+        }
+        int[] px = pixels;
+        int argb = kind.argb, streak = kind.streak, size = kind.size;
+        for (int i = 0; i < count; i++) {
+            int cx = (int) x[i], cy = (int) y[i];
+            if (streak > 0) {
+                // Vertical streak from the head downwards, like the old drawLine(x, y, x, y + 10)
+                if (cx < 0 || cx >= width) continue;
+                int y0 = Math.max(0, cy), y1 = Math.min(height - 1, cy + streak);
+                for (int yy = y0, o = y0 * width + cx; yy <= y1; yy++, o += width) px[o] = argb;
+            } else {
+                int x0 = Math.max(0, cx), x1 = Math.min(width, cx + size);
+                int y0 = Math.max(0, cy), y1 = Math.min(height, cy + size);
+                for (int yy = y0; yy < y1; yy++) {
+                    for (int xx = x0, o = yy * width + x0; xx < x1; xx++, o++) px[o] = argb;
+                }
+            }
+        }
+        g2d.drawImage(layer, 0, 0, null);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= x.length) return;
+        int grown = Math.min(MAX_PARTICLES, Math.max(capacity, x.length * 2));
+        x = Arrays.copyOf(x, grown);
+        y = Arrays.copyOf(y, grown);
+        vy = Arrays.copyOf(vy, grown);
+        phase = Arrays.copyOf(phase, grown);
+    }
+}
@@ -0,0 +1,285 @@
+package weather;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Regional simulation on an n x n periodic grid (a torus, so there are no boundary rows).
+// Temperature, pressure and humidity are advected by the wind and diffused with a 5-point
+// stencil. Pressure relaxes towards two travelling waves, the weather systems that keep the
+// field from diffusing flat; the wind relaxes towards geostrophic balance with the pressure
+// gradient plus a frictional drift toward low pressure; humidity rises under low pressure
+// and condenses into rain above saturation. Every field is a flat float array, double-
+// buffered: a step reads the current arrays and writes the next ones, TILE x TILE tiles at a
+// time across the common pool, then swaps. Wind is in cells per step; the step length shrinks
+// with the cell size so that holds across resolutions over the same DOMAIN_KM.
+final class RegionalGrid {
+    static final double DOMAIN_KM = 2000;
+    static final int DEFAULT_SIZE = 1024;
+    static final int TILE = 256;
+    private static final int TILES_PER_TASK = 4;
+    private static final float DIFFUSION = 0.05f;
+    // |u|, |v| stay within sqrt(2 * DIFFUSION) cells per step, the stencil's stability limit
+    private static final float MAX_WIND = 0.3f;
+    private static final float GEOSTROPHIC = 1.5f, FRICTION = 0.4f, WIND_RELAX = 0.1f;
+    private static final float MEAN_PRESSURE = 1013, SYSTEM_AMPLITUDE = 14, PRESSURE_RELAX = 0.005f;
+    private static final float TEMPERATURE_RELAX = 0.001f;
+    // Humidity target is MEAN_HUMIDITY plus HUMIDITY_PER_HPA for every hPa below the mean
+    private static final float MEAN_HUMIDITY = 80, HUMIDITY_PER_HPA = 5f, HUMIDITY_RELAX = 0.004f;
+    private static final float CONDENSATION = 0.5f, RAIN_PER_PERCENT = 2f;
+    // Weather systems drift one wavelength per this many steps (at 1024 cells)
+    private static final int SYSTEM_PERIOD_STEPS = 3000;
+
+    final int n;
+    final long stepMillis;
+    private final float gradientScale;
+    private final float[] equilibrium;  // per row: cold at row 0, warm at n/2
+    // Pressure systems: waveA(x, t) * rowA(y) + waveB(x, t) * rowB(y)
+    private final float[] rowA, rowB, waveA, waveB;
+    private final double phaseA, phaseB;
+    private float[] t, p, h, u, v;
+    private float[] t2, p2, h2, u2, v2;
+    // mm condensed in the last step, buffered like the rest so readers never see a step in progress
+    private float[] rain, rain2;
+    // Keeps a stepping thread that is winding down from overlapping its replacement
+    private final Object stepLock = new Object();
+    private long time;
+    // Volatile so the UI can poll it without waiting out a copy()
+    private volatile long steps;
+
+    RegionalGrid(int n, long seed, long startMillis) {
+        if (!isValidSize(n)) throw new IllegalArgumentException("Grid size must be a positive multiple of " + TILE);
+        this.n = n;
+        this.stepMillis = 60_000L * 1024 / n;
+        this.gradientScale = n / 1024f;
+        this.time = startMillis;
+        int cells = n * n;
+        t = new float[cells]; p = new float[cells]; h = new float[cells]; u = new float[cells]; v = new float[cells];
+        t2 = new float[cells]; p2 = new float[cells]; h2 = new float[cells]; u2 = new float[cells]; v2 = new float[cells];
+        rain = new float[cells]; rain2 = new float[cells];
+        SplittableRandom rng = new SplittableRandom(seed);
+        equilibrium = new float[n];
+        rowA = new float[n];
+        rowB = new float[n];
+        waveA = new float[n];
+        waveB = new float[n];
+        phaseA = rng.nextDouble() * 2 * Math.PI;
+        phaseB = rng.nextDouble() * 2 * Math.PI;
+        for (int y = 0; y < n; y++) {
+            equilibrium[y] = (float) (12.5 - 17.5 * Math.cos(2 * Math.PI * y / n));
+            rowA[y] = (float) (SYSTEM_AMPLITUDE * 0.6 * Math.cos(2 * Math.PI * 2 * y / n));
+            rowB[y] = (float) (SYSTEM_AMPLITUDE * 0.4 * Math.sin(2 * Math.PI * 3 * y / n));
+        }
+        updateSystems();
+        initialize(rng);
+    }
+
+    // Starts at the weather systems' own pattern plus smaller random waves for temperature and
+    // humidity, evaluated separably (sin(a + b) = sin a cos b + cos a sin b) at a multiply-add per cell
+    private void initialize(SplittableRandom rng) {
+        for (int y = 0; y < n; y++) {
+            int row = y * n;
+            for (int x = 0; x < n; x++) {
+                p[row + x] = MEAN_PRESSURE + waveA[x] * rowA[y] + waveB[x] * rowB[y];
+                t[row + x] = equilibrium[y];
+                h[row + x] = Math.min(100, MEAN_HUMIDITY + HUMIDITY_PER_HPA * (MEAN_PRESSURE - p[row + x]));
+            }
+        }
+        float[][] targets = {t, h};
+        double[] amplitude = {4, 10};
+        double[] sx = new double[n], cx = new double[n], sy = new double[n], cy = new double[n];
+        for (int field = 0; field < targets.length; field++) {
+            for (int wave = 0; wave < 6; wave++) {
+                int kx = 1 + rng.nextInt(4), ky = 1 + rng.nextInt(4);
+                double phaseX = rng.nextDouble() * 2 * Math.PI, phaseY = rng.nextDouble() * 2 * Math.PI;
+                double a = amplitude[field] / 3 * (0.5 + rng.nextDouble());
+                for (int i = 0; i < n; i++) {
+                    sx[i] = Math.sin(2 * Math.PI * kx * i / n + phaseX);
+                    cx[i] = Math.cos(2 * Math.PI * kx * i / n + phaseX);
+                    sy[i] = Math.sin(2 * Math.PI * ky * i / n + phaseY);
+                    cy[i] = Math.cos(2 * Math.PI * ky * i / n + phaseY);
+                }
+                float[] target = targets[field];
+                for (int y = 0; y < n; y++) {
+                    int row = y * n;
+                    for (int x = 0; x < n; x++) target[row + x] += (float) (a * (sx[x] * cy[y] + cx[x] * sy[y]));
+                }
+            }
+        }
+        for (int i = 0; i < h.length; i++) h[i] = Math.max(5, Math.min(100, h[i]));
+    }
+
+    // Column profiles of the travelling systems at the current step
+    private void updateSystems() {
+        double drift = 2 * Math.PI * steps / (SYSTEM_PERIOD_STEPS * gradientScale);
+        for (int x = 0; x < n; x++) {
+            waveA[x] = (float) Math.sin(2 * Math.PI * 2 * x / n - drift + phaseA);
+            waveB[x] = (float) Math.cos(2 * Math.PI * 3 * x / n - 1.5 * drift + phaseB);
+        }
+    }
+
+    static boolean isValidSize(int n) {
+        return n >= TILE && n % TILE == 0;
+    }
+
+    long steps() {
+        return steps;
+    }
+
+    void step() {
+        synchronized (stepLock) {
+            ForkJoinPool.commonPool().invoke(new TileTask(0, (n / TILE) * (n / TILE)));
+            synchronized (this) {
+                float[] swap = t; t = t2; t2 = swap;
+                swap = p; p = p2; p2 = swap;
+                swap = h; h = h2; h2 = swap;
+                swap = u; u = u2; u2 = swap;
+                swap = v; v = v2; v2 = swap;
+                swap = rain; rain = rain2; rain2 = swap;
+                time += stepMillis;
+                steps++;
+            }
+            updateSystems();
+        }
+    }
+
+    // Reading at (fx, fy) in [0, 1); safe to call from any thread while steps run
+    synchronized void sample(double fx, double fy, WeatherData dst) {
+        int x = Math.floorMod((int) (fx * n), n), y = Math.floorMod((int) (fy * n), n);
+        int i = y * n + x;
+        double kmPerCell = DOMAIN_KM / n, stepHours = stepMillis / 3_600_000.0;
+        dst.timestamp = time;
+        dst.present = WeatherData.ALL_PRESENT;
+        dst.temperature = Math.max(-50, Math.min(50, t[i]));
+        dst.pressure = Math.max(800, Math.min(1100, p[i]));
+        dst.humidity = Math.max(0, Math.min(100, h[i]));
+        dst.windSpeed = Math.min(200, Math.hypot(u[i], v[i]) * kmPerCell / stepHours);
+        dst.precipitation = Math.min(500, rain[i] / stepHours);
+        double hour = ((time / 3_600_000.0) + TimeZone.getDefault().getOffset(time) / 3_600_000.0) % 24;
+        double cloudCover = Math.max(0, Math.min(1, (dst.humidity - 50) / 50));
+        dst.uvIndex = (int) Math.round(Math.max(0, 11 * Math.sin(Math.PI * (hour - 6) / 12)) * (1 - 0.7 * cloudCover));
+    }
+
+    // One field (a WeatherData index) in display units, copied whole into dst; returns its step
+    synchronized long copy(int field, float[] dst) {
+        switch (field) {
+            case WeatherData.TEMPERATURE: System.arraycopy(t, 0, dst, 0, dst.length); break;
+            case WeatherData.HUMIDITY: System.arraycopy(h, 0, dst, 0, dst.length); break;
+            case WeatherData.PRESSURE: System.arraycopy(p, 0, dst, 0, dst.length); break;
+            case WeatherData.PRECIPITATION: {
+                float perHour = (float) (3_600_000.0 / stepMillis);
+                for (int i = 0; i < dst.length; i++) dst[i] = rain[i] * perHour;
+                break;
+            }
+            case WeatherData.WIND_SPEED: {
+                float kmh = (float) (DOMAIN_KM / n * 3_600_000.0 / stepMillis);
+                for (int i = 0; i < dst.length; i++) dst[i] = (float) Math.sqrt(u[i] * u[i] + v[i] * v[i]) * kmh;
+                break;
+            }
+            default: throw new IllegalArgumentException("Grid has no field " + field);
+        }
+        return steps;
+    }
+
+    private final class TileTask extends RecursiveAction {
+        private final int from, to;
+
+        TileTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > TILES_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new TileTask(from, mid), new TileTask(mid, to));
+                return;
+            }
+            int tilesPerRow = n / TILE;
+            for (int tile = from; tile < to; tile++) {
+                int x0 = (tile % tilesPerRow) * TILE, y0 = (tile / tilesPerRow) * TILE;
+                for (int y = y0; y < y0 + TILE; y++) stepRow(y, x0, x0 + TILE);
+            }
+        }
+    }
+
+    // The two edge columns wrap and go through cell(); interior cells run as one simple loop
+    // per field over neighbouring indices, a shape C2 unrolls and auto-vectorizes (no Vector
+    // API needed). Clamps are written as compares: float Math.min/max keep these loops scalar.
+    private void stepRow(int y, int x0, int x1) {
+        int row = y * n, north = ((y + n - 1) % n) * n, south = ((y + 1) % n) * n;
+        if (x0 == 0) {
+            cell(row, row + n - 1, row + 1, north, south, y, 0);
+            x0 = 1;
+        }
+        if (x1 == n) {
+            cell(row + n - 1, row + n - 2, row, north + n - 1, south + n - 1, y, n - 1);
+            x1 = n - 1;
+        }
+        int from = row + x0, to = row + x1, dn = north - row, ds = south - row;
+        float[] u = this.u, v = this.v, p = this.p, t = this.t, h = this.h, waveA = this.waveA, waveB = this.waveB;
+        float[] p2 = this.p2, t2 = this.t2, h2 = this.h2, u2 = this.u2, v2 = this.v2, rain2 = this.rain2;
+        float teq = equilibrium[y], a = rowA[y], b = rowB[y];
+        for (int i = from; i < to; i++) {
+            float pc = p[i], target = MEAN_PRESSURE + waveA[i - row] * a + waveB[i - row] * b;
+            p2[i] = pc - 0.5f * (u[i] * (p[i + 1] - p[i - 1]) + v[i] * (p[i + ds] - p[i + dn]))
+                    + DIFFUSION * (p[i - 1] + p[i + 1] + p[i + dn] + p[i + ds] - 4 * pc)
+                    + PRESSURE_RELAX * (target - pc);
+        }
+        for (int i = from; i < to; i++) {
+            float tc = t[i];
+            t2[i] = tc - 0.5f * (u[i] * (t[i + 1] - t[i - 1]) + v[i] * (t[i + ds] - t[i + dn]))
+                    + DIFFUSION * (t[i - 1] + t[i + 1] + t[i + dn] + t[i + ds] - 4 * tc)
+                    + TEMPERATURE_RELAX * (teq - tc);
+        }
+        for (int i = from; i < to; i++) {
+            float hc = h[i], target = MEAN_HUMIDITY + HUMIDITY_PER_HPA * (MEAN_PRESSURE - p[i]);
+            float hv = hc - 0.5f * (u[i] * (h[i + 1] - h[i - 1]) + v[i] * (h[i + ds] - h[i + dn]))
+                    + DIFFUSION * (h[i - 1] + h[i + 1] + h[i + dn] + h[i + ds] - 4 * hc)
+                    + HUMIDITY_RELAX * (target - hc);
+            float excess = hv > 100 ? (hv - 100) * CONDENSATION : 0;
+            float hn = hv - excess;
+            h2[i] = hn < 0 ? 0 : hn;
+            rain2[i] = excess * RAIN_PER_PERCENT;
+        }
+        float scale = gradientScale;
+        for (int i = from; i < to; i++) {
+            float gx = 0.5f * (p[i + 1] - p[i - 1]) * scale, gy = 0.5f * (p[i + ds] - p[i + dn]) * scale;
+            float uc = u[i], vc = v[i];
+            float un = uc + WIND_RELAX * (GEOSTROPHIC * gy - FRICTION * gx - uc);
+            float vn = vc + WIND_RELAX * (-GEOSTROPHIC * gx - FRICTION * gy - vc);
+            un = un > MAX_WIND ? MAX_WIND : un;
+            vn = vn > MAX_WIND ? MAX_WIND : vn;
+            u2[i] = un < -MAX_WIND ? -MAX_WIND : un;
+            v2[i] = vn < -MAX_WIND ? -MAX_WIND : vn;
+        }
+    }
+
+    // Same update as stepRow's loops for a single cell with explicit neighbour indices
+    private void cell(int i, int w, int e, int north, int south, int y, int x) {
+        float uc = u[i], vc = v[i];
+
+        float pc = p[i], pw = p[w], pe = p[e], pn = p[north], ps = p[south];
+        float dpdx = 0.5f * (pe - pw), dpdy = 0.5f * (ps - pn);
+        float target = MEAN_PRESSURE + waveA[x] * rowA[y] + waveB[x] * rowB[y];
+        p2[i] = pc - uc * dpdx - vc * dpdy + DIFFUSION * (pw + pe + pn + ps - 4 * pc) + PRESSURE_RELAX * (target - pc);
+
+        float tc = t[i], tw = t[w], te = t[e], tn = t[north], ts = t[south];
+        t2[i] = tc - 0.5f * (uc * (te - tw) + vc * (ts - tn)) + DIFFUSION * (tw + te + tn + ts - 4 * tc)
+                + TEMPERATURE_RELAX * (equilibrium[y] - tc);
+
+        float hc = h[i], hw = h[w], he = h[e], hn = h[north], hs = h[south];
+        float hv = hc - 0.5f * (uc * (he - hw) + vc * (hs - hn)) + DIFFUSION * (hw + he + hn + hs - 4 * hc)
+                + HUMIDITY_RELAX * (MEAN_HUMIDITY + HUMIDITY_PER_HPA * (MEAN_PRESSURE - pc) - hc);
+        float excess = Math.max(0, hv - 100) * CONDENSATION;
+        h2[i] = Math.max(0, hv - excess);
+        rain2[i] = excess * RAIN_PER_PERCENT;
+
+        // Row index grows southward, so the geostrophic wind is (+dp/dy, -dp/dx) here
+        float gx = dpdx * gradientScale, gy = dpdy * gradientScale;
+        float ug = GEOSTROPHIC * gy - FRICTION * gx, vg = -GEOSTROPHIC * gx - FRICTION * gy;
+        u2[i] = Math.max(-MAX_WIND, Math.min(MAX_WIND, uc + WIND_RELAX * (ug - uc)));
+        v2[i] = Math.max(-MAX_WIND, Math.min(MAX_WIND, vc + WIND_RELAX * (vg - vc)));
+    }
+}
@@ -0,0 +1,118 @@
+package weather;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.function.Consumer;
+import javax.swing.*;
+
+// Shared fonts, colors and composites, plus translucent sprites that are rendered once
+// per panel size instead of once per frame. validate() drops the sprites whenever the
+// owning panel has been resized since the previous paint.
+final class RenderAssets {
+    static final Font BUTTON_FONT = new Font("SansSerif", Font.BOLD, 14);
+    static final Font DATA_TITLE_FONT = new Font("SansSerif", Font.BOLD, 24);
+    static final Font DATA_FONT = new Font("SansSerif", Font.PLAIN, 18);
+    static final Font REPORT_TITLE_FONT = new Font("SansSerif", Font.BOLD, 28);
+    static final Font TIMESTAMP_FONT = new Font("SansSerif", Font.PLAIN, 14);
+    static final Font WATERMARK_FONT = new Font("SansSerif", Font.BOLD, 120);
+    static final Font CHART_LABEL_FONT = new Font("SansSerif", Font.BOLD, 16);
+    static final Font ANALYSIS_TITLE_FONT = new Font("SansSerif", Font.BOLD, 20);
+    static final Font ANALYSIS_FONT = new Font("SansSerif", Font.PLAIN, 16);
+    static final Font STATS_HEADER_FONT = new Font("SansSerif", Font.BOLD, 12);
+    static final Font STATS_FONT = new Font("SansSerif", Font.PLAIN, 12);
+
+    static final Color DASHBOARD_BACKGROUND = new Color(240, 248, 255);
+    static final Color CLOUD = new Color(255, 255, 255, 200);
+    static final Color RAIN = new Color(200, 200, 255, 150);
+    static final Color SNOW = new Color(255, 255, 255, 220);
+    static final Color HAIL = new Color(235, 240, 255, 255);
+    static final Color DATA_PANEL = new Color(0, 0, 0, 150);
+    static final Color DATA_LABEL = new Color(200, 200, 255);
+    static final Color SUN_CORE = Color.YELLOW;
+    static final Color SUN_EDGE = new Color(255, 165, 0);
+    static final Color REPORT_BACKGROUND = new Color(245, 248, 250);
+    static final Color REPORT_TEXT = new Color(30, 30, 70);
+    static final Color WATERMARK = new Color(230, 240, 255);
+    static final Color CHART_BACKGROUND = new Color(220, 230, 240);
+    static final Color CHART_LABEL = new Color(50, 50, 50);
+    static final Color[] CHART_COLORS = {
+        new Color(219, 68, 55),    // Temperature (red)
+        new Color(15, 157, 88),    // Humidity (green)
+        new Color(66, 133, 244),   // Wind (blue)
+        new Color(171, 71, 188),   // Precipitation (purple)
+        new Color(249, 171, 0),    // Pressure (orange)
+        new Color(244, 67, 54)     // UV (red)
+    };
+    static final Color[] FAN_OUTER = withAlpha(CHART_COLORS, 50);
+    static final Color[] FAN_INNER = withAlpha(CHART_COLORS, 110);
+    static final AlphaComposite WATERMARK_COMPOSITE = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.1f);
+
+    static final int SUN_SIZE = 80;
+    // Where the cloud sprite's top-left sits relative to Cloud.x/y
+    private static final Rectangle CLOUD_BOUNDS = Cloud.TEMPLATE.getBounds();
+    static final int CLOUD_OFFSET_X = CLOUD_BOUNDS.x - 1;
+    static final int CLOUD_OFFSET_Y = CLOUD_BOUNDS.y - 1;
+
+    private BufferedImage sunSprite;
+    private BufferedImage cloudSprite;
+    private int width = -1;
+    private int height = -1;
+
+    void validate(JComponent owner) {
+        if (owner.getWidth() == width && owner.getHeight() == height) return;
+        width = owner.getWidth();
+        height = owner.getHeight();
+        invalidate();
+    }
+
+    void invalidate() {
+        sunSprite = null;
+        cloudSprite = null;
+    }
+
+    BufferedImage sunSprite(JComponent owner) {
+        if (sunSprite == null) {
+            sunSprite = render(owner, SUN_SIZE, SUN_SIZE, g -> {
+                // Same gradient the sun used to build per frame, anchored at the sprite centre
+                g.setPaint(new RadialGradientPaint(SUN_SIZE / 2f, SUN_SIZE / 2f, SUN_SIZE,
+                        new float[]{0.1f, 0.9f}, new Color[]{SUN_CORE, SUN_EDGE}));
+                g.fillOval(0, 0, SUN_SIZE, SUN_SIZE);
+            });
+        }
+        return sunSprite;
+    }
+
+    BufferedImage cloudSprite(JComponent owner) {
+        if (cloudSprite == null) {
+            cloudSprite = render(owner, CLOUD_BOUNDS.width + 2, CLOUD_BOUNDS.height + 2, g -> {
+                g.setColor(CLOUD);
+                g.translate(-CLOUD_OFFSET_X, -CLOUD_OFFSET_Y);
+                g.fill(Cloud.TEMPLATE);
+            });
+        }
+        return cloudSprite;
+    }
+
+    static BufferedImage render(JComponent owner, int w, int h, Consumer<Graphics2D> painter) {
+        GraphicsConfiguration gc = owner.getGraphicsConfiguration();
+        BufferedImage image = gc != null
+                ? gc.createCompatibleImage(w, h, Transparency.TRANSLUCENT)
+                : new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            painter.accept(g);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private static Color[] withAlpha(Color[] colors, int alpha) {
+        Color[] result = new Color[colors.length];
+        for (int i = 0; i < colors.length; i++) {
+            result[i] = new Color(colors[i].getRed(), colors[i].getGreen(), colors[i].getBlue(), alpha);
+        }
+        return result;
+    }
+}
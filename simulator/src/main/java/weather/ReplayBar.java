@@ -0,0 +1,183 @@
+package weather;
+
+import java.awt.*;
+import java.io.*;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import javax.swing.*;
+
+// Controls for HistoryReplay, docked under the tabs: a toggle into replay mode, play/pause,
+// speed, and a slider across the whole stored history that seeks where it is let go
+class ReplayBar extends JPanel implements FrameClock.Animated {
+    private static final double[] SPEEDS = {1, 10, 100, 1_000, HistoryReplay.MAX_SPEED};
+    private static final String[] SPEED_LABELS = {"1×", "10×", "100×", "1,000×", "10,000×"};
+    private static final int SLIDER_STEPS = 100_000;
+
+    private final WeatherModel model;
+    private final FrameClock frameClock;
+    private final Runnable onReplay;
+    private final Runnable onAdvance;
+    private final Runnable onLive;
+    private final JToggleButton replayButton = new JToggleButton("Replay history");
+    private final JButton playButton = new JButton("Pause");
+    private final JComboBox<String> speedBox = new JComboBox<>(SPEED_LABELS);
+    private final JSlider slider = new JSlider(0, SLIDER_STEPS, 0);
+    private final JLabel status = new JLabel(" ");
+    private final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+    private ObservationStore store;
+    private HistoryReplay replay;
+    private boolean playing;
+    private boolean updatingSlider;
+    private long first, last;
+    private long lastTick;
+
+    // onReplay runs before replay starts or seeks, so work on the state it replaces can stop;
+    // onAdvance runs whenever replay changed the model, onLive after the live state is back
+    ReplayBar(WeatherModel model, FrameClock frameClock, Runnable onReplay, Runnable onAdvance, Runnable onLive) {
+        super(new BorderLayout(8, 0));
+        this.model = model;
+        this.frameClock = frameClock;
+        this.onReplay = onReplay;
+        this.onAdvance = onAdvance;
+        this.onLive = onLive;
+        setBorder(BorderFactory.createEmptyBorder(4, 8, 4, 8));
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+        buttons.add(replayButton);
+        buttons.add(playButton);
+        buttons.add(speedBox);
+        add(buttons, BorderLayout.WEST);
+        add(slider, BorderLayout.CENTER);
+        status.setFont(RenderAssets.STATS_FONT);
+        status.setPreferredSize(new Dimension(380, status.getPreferredSize().height));
+        add(status, BorderLayout.EAST);
+        setControlsEnabled(false);
+
+        replayButton.addItemListener(e -> setReplaying(replayButton.isSelected()));
+        playButton.addActionListener(e -> setPlaying(!playing));
+        speedBox.addActionListener(e -> {
+            if (replay != null) replay.setSpeed(SPEEDS[speedBox.getSelectedIndex()]);
+        });
+        // A seek reloads the retained month behind the new position, so dragging only moves the
+        // time shown and the seek happens once, on release
+        slider.addChangeListener(e -> {
+            if (updatingSlider || replay == null || slider.getValueIsAdjusting()) return;
+            seek(sliderTime());
+        });
+    }
+
+    void setStore(ObservationStore store) {
+        this.store = store;
+    }
+
+    boolean isReplaying() {
+        return replay != null;
+    }
+
+    void setReplaying(boolean on) {
+        if (on == (replay != null)) return;
+        if (on) {
+            try {
+                if (store == null || store.size() == 0) throw new IOException("there is no stored history");
+                first = store.timestampAt(0);
+                last = store.timestampAt(store.size() - 1);
+                replay = new HistoryReplay(store, model);
+                replay.setSpeed(SPEEDS[speedBox.getSelectedIndex()]);
+                onReplay.run();
+                model.nowcast = null;
+                replay.seek(first);
+            } catch (IOException e) {
+                if (replay != null) replay.close();
+                replay = null;
+                JOptionPane.showMessageDialog(this, "Cannot replay: " + e.getMessage(), "Replay", JOptionPane.ERROR_MESSAGE);
+                replayButton.setSelected(false);
+                return;
+            }
+            setPlaying(true);
+            frameClock.wake();
+            onAdvance.run();
+        } else {
+            replay.close();
+            replay = null;
+            try {
+                model.load(store);
+            } catch (IOException e) {
+                System.err.println("Error reloading data: " + e.getMessage());
+            }
+            onLive.run();
+            onAdvance.run();
+            status.setText(" ");
+        }
+        setControlsEnabled(on);
+    }
+
+    private void setPlaying(boolean on) {
+        playing = on;
+        playButton.setText(on ? "Pause" : "Play");
+        lastTick = System.nanoTime();
+    }
+
+    private long sliderTime() {
+        return first + Math.round((last - first) * (double) slider.getValue() / SLIDER_STEPS);
+    }
+
+    void seek(long time) {
+        onReplay.run();
+        try {
+            replay.seek(time);
+            onAdvance.run();
+        } catch (IOException e) {
+            System.err.println("Error seeking: " + e.getMessage());
+        }
+    }
+
+    // Playback, slider and status follow the replay clock while in replay mode
+    @Override
+    public long stepMillis() {
+        return 40;
+    }
+
+    @Override
+    public void step() {
+        tick();
+    }
+
+    @Override
+    public boolean isAnimating() {
+        return replay != null;
+    }
+
+    @Override
+    public Rectangle dirtyRegion() {
+        return FrameClock.NOTHING;
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        long elapsed = now - lastTick;
+        lastTick = now;
+        // Scrubbing pauses playback until the slider is let go
+        boolean scrubbing = slider.getValueIsAdjusting();
+        try {
+            last = Math.max(last, store.timestampAt(store.size() - 1));
+            if (playing && !scrubbing && replay.advance(elapsed)) onAdvance.run();
+            if (playing && replay.atEnd() && replay.time() >= last) setPlaying(false);
+        } catch (IOException e) {
+            System.err.println("Error replaying: " + e.getMessage());
+            setPlaying(false);
+        }
+        if (!scrubbing) {
+            updatingSlider = true;
+            slider.setValue((int) Math.min(SLIDER_STEPS, (replay.time() - first) * (double) SLIDER_STEPS / Math.max(1, last - first)));
+            updatingSlider = false;
+        }
+        status.setText(String.format("%s at %s | read-ahead %d | stalls %d | seek %.1f ms",
+                format.format(new Date(scrubbing ? sliderTime() : replay.time())), SPEED_LABELS[speedBox.getSelectedIndex()],
+                replay.readAhead(), replay.stalls(), replay.lastSeekNanos() / 1e6));
+    }
+
+    private void setControlsEnabled(boolean on) {
+        playButton.setEnabled(on);
+        speedBox.setEnabled(on);
+        slider.setEnabled(on);
+    }
+}
@@ -0,0 +1,361 @@
+package weather;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.geom.*;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import javax.swing.*;
+
+// Professional report panel
+class ReportPanel extends JPanel implements FrameClock.Animated {
+    private static final int CHART_X = 100;
+    private static final int CHART_TOP = 150;
+    private static final int CHART_WIDTH = 100;
+    private static final int CHART_SPACING = 50;
+    private static final int MAX_BAR_HEIGHT = 200;
+    private static final int CHART_LABEL_Y = 400;
+    private static final int HISTORY_TOP = 680;
+    private static final int STATS_COLUMN_WIDTH = 58;
+    private static final int TREND_WIDTH = 250;
+    private static final int TREND_HEIGHT = 110;
+    private static final int TREND_SPACING = 50;
+    private static final int NOWCAST_TOP = HISTORY_TOP + 540;
+    // Bars and their value labels never leave this area (bar heights are clamped to
+    // [0, MAX_BAR_HEIGHT] in drawBars), so animation repaints only it
+    private final Rectangle barRegion = new Rectangle(CHART_X, CHART_TOP - 50,
+            6 * (CHART_WIDTH + CHART_SPACING) - CHART_SPACING, MAX_BAR_HEIGHT + 51);
+    private final WeatherModel model;
+    private final FrameClock frameClock;
+    private float animationProgress = 0;
+    private final int[] maxValues = {50, 100, 100, 20, 200, 11};
+    private final String[] labels = {"Temp", "Humidity", "Wind", "Rain", "Pressure", "UV"};
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    // Text derived from currentData, rebuilt only when it changes
+    private final String[] valueTexts = new String[WeatherData.FIELD_COUNT];
+    private String generatedText;
+    private final java.util.List<String> analysisLines = new ArrayList<>();
+    private WeatherData formattedData;
+    private long formattedTimestamp;
+    private long formattedHistory = -1;
+    private Nowcast.Result formattedNowcast;
+    // Everything except the animated bars; re-rendered on data or size changes only
+    private final Layer staticLayer = new Layer(Transparency.OPAQUE, this::drawStaticContent);
+    private final MinMaxDownsampler downsampler = new MinMaxDownsampler();
+    private final Path2D.Float trendPath = new Path2D.Float();
+
+    public ReportPanel(WeatherModel model, FrameClock frameClock) {
+        this.model = model;
+        this.frameClock = frameClock;
+        setPreferredSize(new Dimension(1000, NOWCAST_TOP + 30 + 2 * (TREND_HEIGHT + 60) + 40));
+        // The panel sits in a scroll pane, so watch showing changes rather than componentShown
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && isShowing()) startAnimation();
+        });
+    }
+
+    public void startAnimation() {
+        animationProgress = 0;
+        frameClock.wake();
+    }
+
+    @Override
+    public long stepMillis() {
+        return 20;
+    }
+
+    @Override
+    public boolean isAnimating() {
+        return animationProgress < 1.0f;
+    }
+
+    @Override
+    public void step() {
+        animationProgress = Math.min(1.0f, animationProgress + 0.02f);
+    }
+
+    @Override
+    public Rectangle dirtyRegion() {
+        return barRegion;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        long start = System.nanoTime();
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        formatData();
+
+        staticLayer.draw(g2d, this);
+        drawBars(g2d);
+        Metrics.REPORT_PAINT.record(System.nanoTime() - start);
+    }
+
+    private void drawStaticContent(Graphics2D g2d) {
+        // Draw professional background
+        drawReportBackground(g2d);
+
+        // Draw title
+        g2d.setFont(RenderAssets.REPORT_TITLE_FONT);
+        g2d.setColor(RenderAssets.REPORT_TEXT);
+        String title = "Professional Weather Analysis Report";
+        g2d.drawString(title, (getWidth() - g2d.getFontMetrics().stringWidth(title)) / 2, 50);
+
+        // Draw timestamp
+        g2d.setFont(RenderAssets.TIMESTAMP_FONT);
+        g2d.drawString(generatedText, getWidth() - 250, 30);
+
+        // Draw chart frames, labels and analysis
+        drawChartFrames(g2d);
+        drawAnalysisReport(g2d, CHART_LABEL_Y + 50);
+
+        // Draw history statistics and trends
+        drawWindowStats(g2d, HISTORY_TOP);
+        drawTrends(g2d, HISTORY_TOP + 170);
+        drawNowcast(g2d, NOWCAST_TOP);
+    }
+
+    private void formatData() {
+        if (formattedData == model.currentData && formattedTimestamp == model.currentData.timestamp
+                && formattedHistory == model.historyVersion && formattedNowcast == model.nowcast) return;
+        formattedData = model.currentData;
+        formattedTimestamp = model.currentData.timestamp;
+        formattedHistory = model.historyVersion;
+        formattedNowcast = model.nowcast;
+        staticLayer.invalidate();
+        generatedText = "Generated: " + timeFormat.format(new Date(model.currentData.timestamp));
+        for (int i = 0; i < valueTexts.length; i++) {
+            double value = i == WeatherData.PRESSURE ? model.currentData.pressure - 900 : model.currentData.get(i);
+            valueTexts[i] = (i == 3 || i == 4) ? String.format("%.1f", value) : String.format("%.0f", value);
+        }
+        // Alert rules run once per reading rather than once per paint
+        analysisLines.clear();
+        for (String message : model.alertRules.messages(model.alertRules.evaluate(model.currentData))) {
+            analysisLines.add("- " + message);
+        }
+    }
+
+    private void drawReportBackground(Graphics2D g2d) {
+        g2d.setColor(RenderAssets.REPORT_BACKGROUND);
+        g2d.fillRect(0, 0, getWidth(), getHeight());
+
+        // Draw watermark
+        g2d.setColor(RenderAssets.WATERMARK);
+        g2d.setFont(RenderAssets.WATERMARK_FONT);
+        g2d.setComposite(RenderAssets.WATERMARK_COMPOSITE);
+        g2d.drawString("WEATHER", 100, getHeight() / 2);
+    }
+
+    private void drawChartFrames(Graphics2D g2d) {
+        g2d.setComposite(AlphaComposite.SrcOver);
+        g2d.setFont(RenderAssets.CHART_LABEL_FONT);
+        for (int i = 0; i < labels.length; i++) {
+            int x = CHART_X + i * (CHART_WIDTH + CHART_SPACING);
+
+            // Draw chart background
+            g2d.setColor(RenderAssets.CHART_BACKGROUND);
+            g2d.fillRect(x, CHART_TOP, CHART_WIDTH, MAX_BAR_HEIGHT);
+
+            // Draw label
+            g2d.setColor(RenderAssets.CHART_LABEL);
+            g2d.drawString(labels[i], x + (CHART_WIDTH - g2d.getFontMetrics().stringWidth(labels[i]))/2, CHART_LABEL_Y);
+        }
+    }
+
+    private void drawBars(Graphics2D g2d) {
+        g2d.setFont(RenderAssets.CHART_LABEL_FONT);
+        for (int i = 0; i < labels.length; i++) {
+            int x = CHART_X + i * (CHART_WIDTH + CHART_SPACING);
+
+            // Draw animated bar; chart order matches the WeatherData field indices
+            if (model.currentData.has(i)) {
+                double value = i == WeatherData.PRESSURE ? model.currentData.pressure - 900 : model.currentData.get(i);
+                // Clamped so out-of-scale or negative values stay inside barRegion with their labels
+                int barHeight = (int) (MAX_BAR_HEIGHT * Math.max(0, Math.min(1, value / maxValues[i])) * animationProgress);
+                Color barColor = getChartColor(i);
+                g2d.setColor(barColor);
+                g2d.fillRect(x, CHART_TOP + MAX_BAR_HEIGHT - barHeight, CHART_WIDTH, barHeight);
+
+                // Draw value text
+                g2d.setColor(Color.BLACK);
+                String valText = valueTexts[i];
+                int textWidth = g2d.getFontMetrics().stringWidth(valText);
+                g2d.drawString(valText, x + (CHART_WIDTH - textWidth)/2, CHART_TOP - 20 + MAX_BAR_HEIGHT - barHeight);
+            }
+        }
+    }
+
+    // Min / mean / max / p95 per field for each sliding window
+    private void drawWindowStats(Graphics2D g2d, int y) {
+        g2d.setFont(RenderAssets.ANALYSIS_TITLE_FONT);
+        g2d.setColor(RenderAssets.REPORT_TEXT);
+        g2d.drawString("History:", 100, y);
+
+        y += 30;
+        String[] stats = {"min", "mean", "max", "p95"};
+        g2d.setFont(RenderAssets.STATS_HEADER_FONT);
+        for (int w = 0; w < model.windows.length; w++) {
+            int x = 200 + w * 4 * STATS_COLUMN_WIDTH;
+            g2d.drawString(model.windows[w].name + " (" + model.windows[w].size() + ")", x, y);
+            for (int k = 0; k < stats.length; k++) g2d.drawString(stats[k], x + k * STATS_COLUMN_WIDTH, y + 16);
+        }
+        g2d.setFont(RenderAssets.STATS_FONT);
+        for (int f = 0; f < WeatherData.FIELD_COUNT; f++) {
+            int rowY = y + 34 + f * 16;
+            g2d.setColor(RenderAssets.CHART_LABEL);
+            g2d.drawString(labels[f], 100, rowY);
+            g2d.setColor(RenderAssets.REPORT_TEXT);
+            for (int w = 0; w < model.windows.length; w++) {
+                SlidingWindow window = model.windows[w];
+                if (window.count(f) == 0) continue;
+                int x = 200 + w * 4 * STATS_COLUMN_WIDTH;
+                double[] values = {window.min(f), window.mean(f), window.max(f), window.percentile(f, 0.95)};
+                for (int k = 0; k < values.length; k++) {
+                    g2d.drawString(String.format("%.1f", values[k]), x + k * STATS_COLUMN_WIDTH, rowY);
+                }
+            }
+        }
+    }
+
+    // One line chart per field over the retained model.history, downsampled to one min/max pair per
+    // pixel column, so drawing cost tracks the chart width rather than the number of readings
+    private void drawTrends(Graphics2D g2d, int y) {
+        int n = model.history.size();
+        g2d.setFont(RenderAssets.STATS_HEADER_FONT);
+        g2d.setColor(RenderAssets.REPORT_TEXT);
+        if (n == 0) {
+            g2d.drawString("No stored history yet", 100, y);
+            return;
+        }
+        long from = model.history.timestamp(0), to = model.history.timestamp(n - 1);
+        g2d.drawString(String.format("Trends: %s to %s, %,d readings", timeFormat.format(new Date(from)),
+                timeFormat.format(new Date(to)), n), 100, y);
+        for (int f = 0; f < WeatherData.FIELD_COUNT; f++) {
+            int x = CHART_X + (f % 3) * (TREND_WIDTH + TREND_SPACING);
+            int top = y + 30 + (f / 3) * (TREND_HEIGHT + 60);
+            g2d.setColor(RenderAssets.CHART_BACKGROUND);
+            g2d.fillRect(x, top, TREND_WIDTH, TREND_HEIGHT);
+            g2d.setColor(RenderAssets.CHART_LABEL);
+            g2d.setFont(RenderAssets.STATS_HEADER_FONT);
+            g2d.drawString(labels[f], x, top + TREND_HEIGHT + 16);
+
+            int buckets = downsampler.downsample(model.history, f, from, to, TREND_WIDTH);
+            if (buckets == 0) continue;
+            double low = downsampler.low(), high = downsampler.high();
+            if (high - low < 1e-9) {
+                low -= 1;
+                high += 1;
+            }
+            double scale = (TREND_HEIGHT - 4) / (high - low);
+            int bottom = top + TREND_HEIGHT - 2;
+            trendPath.reset();
+            boolean started = false;
+            for (int b = 0; b < TREND_WIDTH; b++) {
+                if (!downsampler.has(b)) continue;
+                float minY = (float) (bottom - (downsampler.min(b) - low) * scale);
+                float maxY = (float) (bottom - (downsampler.max(b) - low) * scale);
+                if (started) trendPath.lineTo(x + b, minY);
+                else trendPath.moveTo(x + b, minY);
+                trendPath.lineTo(x + b, maxY);
+                started = true;
+            }
+            g2d.setColor(getChartColor(f));
+            g2d.draw(trendPath);
+            g2d.setFont(RenderAssets.STATS_FONT);
+            g2d.setColor(RenderAssets.CHART_LABEL);
+            String range = String.format("%.1f .. %.1f", downsampler.low(), downsampler.high());
+            g2d.drawString(range, x + TREND_WIDTH - g2d.getFontMetrics().stringWidth(range), top + TREND_HEIGHT + 16);
+        }
+    }
+
+    // Fan charts: 5-95% and 25-75% bands around the median over the next 24 hours
+    private void drawNowcast(Graphics2D g2d, int y) {
+        Nowcast.Result nowcast = model.nowcast;
+        g2d.setFont(RenderAssets.STATS_HEADER_FONT);
+        g2d.setColor(RenderAssets.REPORT_TEXT);
+        if (nowcast == null || nowcast.start != model.currentData.timestamp) {
+            g2d.drawString("24 h nowcast: computing...", 100, y);
+            return;
+        }
+        g2d.drawString(String.format("24 h nowcast from %s: %,d%s ensemble members, 5-95%% and 25-75%% bands, median (5-95%%) at +24 h",
+                timeFormat.format(new Date(nowcast.start)), nowcast.members,
+                nowcast.complete() ? "" : String.format(" of %,d", nowcast.totalMembers)), 100, y);
+        for (int f = 0; f < WeatherData.FIELD_COUNT; f++) {
+            int x = CHART_X + (f % 3) * (TREND_WIDTH + TREND_SPACING);
+            int top = y + 30 + (f / 3) * (TREND_HEIGHT + 60);
+            g2d.setColor(RenderAssets.CHART_BACKGROUND);
+            g2d.fillRect(x, top, TREND_WIDTH, TREND_HEIGHT);
+            g2d.setColor(RenderAssets.CHART_LABEL);
+            g2d.setFont(RenderAssets.STATS_HEADER_FONT);
+            g2d.drawString(labels[f], x, top + TREND_HEIGHT + 16);
+
+            double[][] bands = nowcast.bands[f];
+            double low = Double.POSITIVE_INFINITY, high = Double.NEGATIVE_INFINITY;
+            for (int t = 0; t <= Nowcast.HORIZON_STEPS; t++) {
+                low = Math.min(low, bands[Nowcast.P5][t]);
+                high = Math.max(high, bands[Nowcast.P95][t]);
+            }
+            if (high - low < 1e-9) {
+                low -= 1;
+                high += 1;
+            }
+            double scale = (TREND_HEIGHT - 4) / (high - low);
+            int bottom = top + TREND_HEIGHT - 2;
+            g2d.setColor(RenderAssets.FAN_OUTER[f]);
+            g2d.fill(band(bands[Nowcast.P5], bands[Nowcast.P95], x, bottom, low, scale));
+            g2d.setColor(RenderAssets.FAN_INNER[f]);
+            g2d.fill(band(bands[Nowcast.P25], bands[Nowcast.P75], x, bottom, low, scale));
+            trendPath.reset();
+            for (int t = 0; t <= Nowcast.HORIZON_STEPS; t++) {
+                float px = x + (float) t * TREND_WIDTH / Nowcast.HORIZON_STEPS;
+                float py = (float) (bottom - (bands[Nowcast.MEDIAN][t] - low) * scale);
+                if (t == 0) trendPath.moveTo(px, py);
+                else trendPath.lineTo(px, py);
+            }
+            g2d.setColor(getChartColor(f));
+            g2d.draw(trendPath);
+            g2d.setFont(RenderAssets.STATS_FONT);
+            g2d.setColor(RenderAssets.CHART_LABEL);
+            int end = Nowcast.HORIZON_STEPS;
+            String range = String.format("%.1f (%.1f .. %.1f)", bands[Nowcast.MEDIAN][end],
+                    bands[Nowcast.P5][end], bands[Nowcast.P95][end]);
+            g2d.drawString(range, x + TREND_WIDTH - g2d.getFontMetrics().stringWidth(range), top + TREND_HEIGHT + 16);
+        }
+    }
+
+    // Closed outline between a lower and an upper band series
+    private Path2D.Float band(double[] lower, double[] upper, int x, int bottom, double low, double scale) {
+        Path2D.Float path = new Path2D.Float();
+        for (int t = 0; t <= Nowcast.HORIZON_STEPS; t++) {
+            float px = x + (float) t * TREND_WIDTH / Nowcast.HORIZON_STEPS;
+            float py = (float) (bottom - (upper[t] - low) * scale);
+            if (t == 0) path.moveTo(px, py);
+            else path.lineTo(px, py);
+        }
+        for (int t = Nowcast.HORIZON_STEPS; t >= 0; t--) {
+            path.lineTo(x + (float) t * TREND_WIDTH / Nowcast.HORIZON_STEPS, (float) (bottom - (lower[t] - low) * scale));
+        }
+        path.closePath();
+        return path;
+    }
+
+    private Color getChartColor(int index) {
+        return RenderAssets.CHART_COLORS[index];
+    }
+
+    private void drawAnalysisReport(Graphics2D g2d, int y) {
+        g2d.setFont(RenderAssets.ANALYSIS_TITLE_FONT);
+        g2d.setColor(RenderAssets.REPORT_TEXT);
+        g2d.drawString("Meteorological Analysis:", 100, y);
+        
+        g2d.setFont(RenderAssets.ANALYSIS_FONT);
+        y += 30;
+        
+        for (String line : analysisLines) {
+            g2d.drawString(line, 120, y);
+            y += 25;
+        }
+    }
+
+}
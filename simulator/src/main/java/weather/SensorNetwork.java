@@ -0,0 +1,206 @@
+package weather;
+
+import java.io.*;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.locks.LockSupport;
+
+// Thousands of simulated sensors, each on its own virtual thread (Java 21+), publishing
+// readings into a latest-value table that needs no locks. On older runtimes, where thousands
+// of platform threads would spend the CPU on scheduling, sensors run as periodic tasks over
+// one thread per core instead. The table is one long[] with a
+// STRIDE-long row per station, so no two writers share a cache line; each row is a seqlock
+// whose only writer is its sensor. The sequence is odd while a write is in progress, and
+// readers retry if it was odd or moved while they copied the row. Writers never wait and
+// readers only spin across one row write. snapshot() copies every row into an immutable
+// Snapshot: readings that arrived since the last one are coalesced into the latest per station.
+final class SensorNetwork implements Closeable {
+    private static final int STRIDE = 16;
+    // Row layout: sequence, timestamp, present | uvIndex << 32, the five double fields as raw
+    // bits, publish time (nanoTime) and the station's reading count
+    private static final int SEQ = 0, TIMESTAMP = 1, FLAGS = 2, VALUES = 3, PUBLISHED = 8, COUNT = 9;
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(long[].class);
+    // Simulated time between a sensor's readings
+    private static final long READING_MILLIS = 60_000;
+
+    final int stations;
+    private final long intervalNanos;
+    private final long[] table;
+    private final WeatherGenerator generator;
+    private final long startMillis = System.currentTimeMillis();
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    SensorNetwork(int stations, long intervalNanos, long seed) {
+        this.stations = stations;
+        this.intervalNanos = intervalNanos;
+        this.table = new long[stations * STRIDE];
+        this.generator = new WeatherGenerator(seed, READING_MILLIS);
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    void start() {
+        if (running) return;
+        running = true;
+        if (Threads.hasVirtualThreads()) {
+            executor = Threads.newThreadPerTaskExecutor("sensor");
+            for (int station = 0; station < stations; station++) executor.execute(new Sensor(station));
+            return;
+        }
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+            Thread thread = new Thread(r, "sensor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor = scheduler;
+        for (int station = 0; station < stations; station++) {
+            Sensor sensor = new Sensor(station);
+            if (intervalNanos > 0) {
+                scheduler.scheduleAtFixedRate(sensor::next, station * intervalNanos / stations, intervalNanos,
+                        java.util.concurrent.TimeUnit.NANOSECONDS);
+            } else {
+                scheduler.execute(sensor::nextAndRequeue);
+            }
+        }
+    }
+
+    // One station's generator; runs one execution at a time, so it is its row's only writer
+    private final class Sensor implements Runnable {
+        private final int station;
+        private final WeatherGenerator.Station source;
+        private final WeatherData reading = new WeatherData();
+
+        Sensor(int station) {
+            this.station = station;
+            this.source = generator.station(station, startMillis);
+        }
+
+        // Thread-per-sensor loop
+        @Override
+        public void run() {
+            while (running) {
+                next();
+                if (intervalNanos > 0) LockSupport.parkNanos(intervalNanos);
+                else Thread.yield();
+            }
+        }
+
+        void next() {
+            source.next(reading);
+            publish(station, reading);
+        }
+
+        // Unthrottled on a shared pool: requeue behind every other sensor
+        void nextAndRequeue() {
+            next();
+            if (running) executor.execute(this::nextAndRequeue);
+        }
+    }
+
+    // Only the station's own sensor may call this
+    void publish(int station, WeatherData data) {
+        int row = station * STRIDE;
+        long seq = table[row + SEQ];
+        SLOT.setOpaque(table, row + SEQ, seq + 1);
+        VarHandle.storeStoreFence();
+        table[row + TIMESTAMP] = data.timestamp;
+        table[row + FLAGS] = data.present | (long) data.uvIndex << 32;
+        for (int f = 0; f < WeatherData.UV_INDEX; f++) table[row + VALUES + f] = Double.doubleToRawLongBits(data.get(f));
+        table[row + PUBLISHED] = System.nanoTime();
+        table[row + COUNT]++;
+        SLOT.setRelease(table, row + SEQ, seq + 2);
+    }
+
+    // Consistent copy of every row; rows that have never been written are absent
+    Snapshot snapshot() {
+        long start = System.nanoTime();
+        long[] copy = new long[table.length];
+        for (int row = 0; row < table.length; row += STRIDE) {
+            for (int spins = 0; ; spins++) {
+                long seq = (long) SLOT.getAcquire(table, row + SEQ);
+                if ((seq & 1) == 0) {
+                    System.arraycopy(table, row + 1, copy, row + 1, COUNT);
+                    VarHandle.loadLoadFence();
+                    if ((long) SLOT.getOpaque(table, row + SEQ) == seq) {
+                        copy[row + SEQ] = seq;
+                        break;
+                    }
+                }
+                // A writer preempted mid-row needs the CPU back before the row settles
+                if (spins < 100) Thread.onSpinWait();
+                else Thread.yield();
+            }
+        }
+        Snapshot snapshot = new Snapshot(copy, stations, System.nanoTime());
+        Metrics.SENSOR_SNAPSHOT.record(System.nanoTime() - start);
+        return snapshot;
+    }
+
+    // Immutable view of the network at one instant, with network-wide aggregates
+    static final class Snapshot {
+        final int stations;
+        final long takenNanos;
+        final long readings;
+        final int reporting;
+        // Time since each station's reading was published, over reporting stations
+        final long meanAgeNanos, maxAgeNanos;
+        private final long[] rows;
+        private final double[] means = new double[WeatherData.FIELD_COUNT];
+
+        private Snapshot(long[] rows, int stations, long takenNanos) {
+            this.rows = rows;
+            this.stations = stations;
+            this.takenNanos = takenNanos;
+            long readings = 0, ageSum = 0, maxAge = 0;
+            int reporting = 0;
+            for (int station = 0; station < stations; station++) {
+                int row = station * STRIDE;
+                readings += rows[row + COUNT];
+                if (rows[row + SEQ] == 0) continue;
+                reporting++;
+                long age = takenNanos - rows[row + PUBLISHED];
+                ageSum += age;
+                maxAge = Math.max(maxAge, age);
+                for (int f = 0; f < WeatherData.UV_INDEX; f++) means[f] += Double.longBitsToDouble(rows[row + VALUES + f]);
+                means[WeatherData.UV_INDEX] += (int) (rows[row + FLAGS] >>> 32);
+            }
+            for (int f = 0; f < means.length; f++) means[f] = reporting > 0 ? means[f] / reporting : Double.NaN;
+            this.readings = readings;
+            this.reporting = reporting;
+            this.meanAgeNanos = reporting > 0 ? ageSum / reporting : 0;
+            this.maxAgeNanos = maxAge;
+        }
+
+        boolean has(int station) {
+            return rows[station * STRIDE + SEQ] != 0;
+        }
+
+        double value(int station, int field) {
+            int row = station * STRIDE;
+            return field == WeatherData.UV_INDEX ? (int) (rows[row + FLAGS] >>> 32)
+                    : Double.longBitsToDouble(rows[row + VALUES + field]);
+        }
+
+        double mean(int field) {
+            return means[field];
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (executor == null) return;
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, java.util.concurrent.TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
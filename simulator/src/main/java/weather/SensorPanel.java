@@ -0,0 +1,115 @@
+package weather;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.concurrent.ForkJoinPool;
+import javax.swing.*;
+
+// Live view of a SensorNetwork. Each frame takes one snapshot and paints only from it: a cell
+// per station coloured by temperature, the network means, ingest rate and snapshot latency.
+// Snapshots copy the whole table, so they are taken on the common pool and handed to the EDT;
+// a frame that comes due while one is still being taken is skipped.
+class SensorPanel extends JPanel implements FrameClock.Animated {
+    private SensorNetwork network;
+    private SensorNetwork.Snapshot snapshot;
+    private boolean snapshotting;
+    private BufferedImage cells;
+    // Ingest rate over roughly one-second windows
+    private long rateReadings, rateStart;
+    private double ingestRate;
+
+    SensorPanel() {
+        setBackground(RenderAssets.REPORT_BACKGROUND);
+    }
+
+    void setNetwork(SensorNetwork network) {
+        this.network = network;
+        snapshot = null;
+        cells = null;
+        ingestRate = 0;
+        repaint();
+    }
+
+    @Override
+    public long stepMillis() {
+        return 50;
+    }
+
+    @Override
+    public boolean isAnimating() {
+        return network != null && network.isRunning();
+    }
+
+    @Override
+    public void step() {
+        if (snapshotting) return;
+        snapshotting = true;
+        SensorNetwork source = network;
+        ForkJoinPool.commonPool().execute(() -> {
+            SensorNetwork.Snapshot next = null;
+            try {
+                next = source.snapshot();
+            } finally {
+                SensorNetwork.Snapshot taken = next;
+                SwingUtilities.invokeLater(() -> {
+                    snapshotting = false;
+                    if (taken != null && source == network) accept(taken);
+                });
+            }
+        });
+    }
+
+    // Steps only start a snapshot; the repaint comes when it arrives
+    @Override
+    public Rectangle dirtyRegion() {
+        return FrameClock.NOTHING;
+    }
+
+    private void accept(SensorNetwork.Snapshot next) {
+        Metrics.SENSOR_AGE.record(next.maxAgeNanos);
+        if (snapshot == null) {
+            rateStart = next.takenNanos;
+            rateReadings = next.readings;
+        } else if (next.takenNanos - rateStart >= 1_000_000_000L) {
+            ingestRate = (next.readings - rateReadings) * 1e9 / (next.takenNanos - rateStart);
+            rateStart = next.takenNanos;
+            rateReadings = next.readings;
+        }
+        snapshot = next;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g;
+        SensorNetwork.Snapshot current = snapshot;
+        g2d.setColor(RenderAssets.REPORT_TEXT);
+        g2d.setFont(RenderAssets.DATA_FONT);
+        if (current == null) {
+            g2d.drawString("Start the network to see its sensors.", 20, 40);
+            return;
+        }
+        g2d.drawString(String.format("%,d of %,d stations reporting, %,.0f readings/s, %,d in total",
+                current.reporting, current.stations, ingestRate, current.readings), 20, 30);
+        g2d.setFont(RenderAssets.STATS_FONT);
+        g2d.drawString(String.format("Snapshot p50 %.0f µs, p99 %.0f µs | reading age mean %.1f ms, max %.1f ms (p99 over frames %.1f ms)",
+                Metrics.SENSOR_SNAPSHOT.percentile(0.5) / 1e3, Metrics.SENSOR_SNAPSHOT.percentile(0.99) / 1e3,
+                current.meanAgeNanos / 1e6, current.maxAgeNanos / 1e6, Metrics.SENSOR_AGE.percentile(0.99) / 1e6), 20, 52);
+        g2d.drawString(String.format("Network mean: %.1f °C, %.0f%% humidity, %.1f km/h wind, %.2f mm rain, %.1f hPa, UV %.1f",
+                current.mean(WeatherData.TEMPERATURE), current.mean(WeatherData.HUMIDITY), current.mean(WeatherData.WIND_SPEED),
+                current.mean(WeatherData.PRECIPITATION), current.mean(WeatherData.PRESSURE), current.mean(WeatherData.UV_INDEX)), 20, 72);
+
+        int side = (int) Math.ceil(Math.sqrt(current.stations));
+        if (cells == null || cells.getWidth() != side) cells = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) cells.getRaster().getDataBuffer()).getData();
+        int background = RenderAssets.CHART_BACKGROUND.getRGB();
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = i < current.stations && current.has(i)
+                    ? HeatmapPanel.rgb(WeatherData.TEMPERATURE, current.value(i, WeatherData.TEMPERATURE)) : background;
+        }
+        int cell = Math.max(1, Math.min(getWidth() - 40, getHeight() - 110) / side);
+        g2d.drawImage(cells, 20, 90, side * cell, side * cell, null);
+    }
+}
@@ -0,0 +1,186 @@
+package weather;
+
+import java.util.*;
+
+// Sliding time window over the observation stream (anchored at the newest reading). Per field
+// it keeps a running sum and count for the mean, monotonic deques for exact min and max, and
+// a fixed-bin histogram over the field's valid range for percentiles, so adding or expiring
+// a reading is O(1) amortized and nothing is rescanned. Readings must arrive in time order.
+final class SlidingWindow {
+    private static final int BINS = 1024;
+
+    final String name;
+    final long lengthMillis;
+    // Live readings are sequence numbers [head, tail) in power-of-two ring buffers
+    private long[] times = new long[64];
+    private byte[] masks = new byte[64];
+    private final double[][] values = new double[WeatherData.FIELD_COUNT][64];
+    private long head, tail;
+    private final double[] sum = new double[WeatherData.FIELD_COUNT];
+    private final int[] count = new int[WeatherData.FIELD_COUNT];
+    private final int[][] histogram = new int[WeatherData.FIELD_COUNT][BINS];
+    private final SeqDeque[] minima = new SeqDeque[WeatherData.FIELD_COUNT];
+    private final SeqDeque[] maxima = new SeqDeque[WeatherData.FIELD_COUNT];
+
+    SlidingWindow(String name, long lengthMillis) {
+        this.name = name;
+        this.lengthMillis = lengthMillis;
+        for (int f = 0; f < WeatherData.FIELD_COUNT; f++) {
+            minima[f] = new SeqDeque();
+            maxima[f] = new SeqDeque();
+        }
+    }
+
+    void add(WeatherData data) {
+        long seq = reserve(data.timestamp, data.present);
+        for (int f = 0; f < WeatherData.FIELD_COUNT; f++) values[f][slot(seq)] = data.get(f);
+        admit(seq);
+    }
+
+    void add(WeatherBatch batch, int i) {
+        long seq = reserve(batch.timestamp(i), batch.presentMask(i));
+        for (int f = 0; f < WeatherData.FIELD_COUNT; f++) values[f][slot(seq)] = batch.value(i, f);
+        admit(seq);
+    }
+
+    void clear() {
+        evict(Long.MAX_VALUE);
+    }
+
+    int size() {
+        return (int) (tail - head);
+    }
+
+    int count(int field) {
+        return count[field];
+    }
+
+    double mean(int field) {
+        return count[field] == 0 ? Double.NaN : sum[field] / count[field];
+    }
+
+    double min(int field) {
+        return minima[field].isEmpty() ? Double.NaN : values[field][slot(minima[field].first())];
+    }
+
+    double max(int field) {
+        return maxima[field].isEmpty() ? Double.NaN : values[field][slot(maxima[field].first())];
+    }
+
+    // Approximate quantile (bin centre, clamped to the exact min/max)
+    double percentile(int field, double q) {
+        int n = count[field];
+        if (n == 0) return Double.NaN;
+        long rank = Math.max(1, (long) Math.ceil(q * n));
+        int[] bins = histogram[field];
+        int b = 0;
+        for (long seen = bins[0]; seen < rank && b < BINS - 1; seen += bins[++b]) { }
+        double width = (WeatherData.VALID_MAX[field] - WeatherData.VALID_MIN[field]) / BINS;
+        double value = WeatherData.VALID_MIN[field] + (b + 0.5) * width;
+        return Math.max(min(field), Math.min(max(field), value));
+    }
+
+    private long reserve(long timestamp, int mask) {
+        if (tail - head == times.length) grow();
+        long seq = tail;
+        times[slot(seq)] = timestamp;
+        masks[slot(seq)] = (byte) mask;
+        return seq;
+    }
+
+    private void admit(long seq) {
+        tail = seq + 1;
+        int mask = masks[slot(seq)];
+        for (int f = 0; f < WeatherData.FIELD_COUNT; f++) {
+            if ((mask & (1 << f)) == 0) continue;
+            double v = values[f][slot(seq)];
+            sum[f] += v;
+            count[f]++;
+            histogram[f][bin(f, v)]++;
+            SeqDeque lows = minima[f], highs = maxima[f];
+            while (!lows.isEmpty() && values[f][slot(lows.last())] >= v) lows.removeLast();
+            lows.addLast(seq);
+            while (!highs.isEmpty() && values[f][slot(highs.last())] <= v) highs.removeLast();
+            highs.addLast(seq);
+        }
+        evict(times[slot(seq)] - lengthMillis);
+    }
+
+    private void evict(long cutoff) {
+        while (head < tail && times[slot(head)] <= cutoff) {
+            int mask = masks[slot(head)];
+            for (int f = 0; f < WeatherData.FIELD_COUNT; f++) {
+                if ((mask & (1 << f)) == 0) continue;
+                double v = values[f][slot(head)];
+                sum[f] -= v;
+                count[f]--;
+                histogram[f][bin(f, v)]--;
+                if (!minima[f].isEmpty() && minima[f].first() == head) minima[f].removeFirst();
+                if (!maxima[f].isEmpty() && maxima[f].first() == head) maxima[f].removeFirst();
+            }
+            head++;
+        }
+        if (head == tail) Arrays.fill(sum, 0);  // shed accumulated rounding error
+    }
+
+    private int slot(long seq) {
+        return (int) (seq & (times.length - 1));
+    }
+
+    private static int bin(int field, double v) {
+        double min = WeatherData.VALID_MIN[field], max = WeatherData.VALID_MAX[field];
+        int b = (int) ((v - min) / (max - min) * BINS);
+        return b < 0 ? 0 : b >= BINS ? BINS - 1 : b;
+    }
+
+    private void grow() {
+        int capacity = times.length * 2;
+        long[] newTimes = new long[capacity];
+        byte[] newMasks = new byte[capacity];
+        double[][] newValues = new double[WeatherData.FIELD_COUNT][capacity];
+        for (long seq = head; seq < tail; seq++) {
+            int from = slot(seq), to = (int) (seq & (capacity - 1));
+            newTimes[to] = times[from];
+            newMasks[to] = masks[from];
+            for (int f = 0; f < WeatherData.FIELD_COUNT; f++) newValues[f][to] = values[f][from];
+        }
+        times = newTimes;
+        masks = newMasks;
+        System.arraycopy(newValues, 0, values, 0, WeatherData.FIELD_COUNT);
+    }
+
+    // Growable ring of sequence numbers usable from both ends
+    private static final class SeqDeque {
+        private long[] ring = new long[16];
+        private long head, tail;
+
+        boolean isEmpty() {
+            return head == tail;
+        }
+
+        long first() {
+            return ring[(int) (head & (ring.length - 1))];
+        }
+
+        long last() {
+            return ring[(int) ((tail - 1) & (ring.length - 1))];
+        }
+
+        void addLast(long seq) {
+            if (tail - head == ring.length) {
+                long[] grown = new long[ring.length * 2];
+                for (long i = head; i < tail; i++) grown[(int) (i & (grown.length - 1))] = ring[(int) (i & (ring.length - 1))];
+                ring = grown;
+            }
+            ring[(int) (tail++ & (ring.length - 1))] = seq;
+        }
+
+        void removeFirst() {
+            head++;
+        }
+
+        void removeLast() {
+            tail--;
+        }
+    }
+}
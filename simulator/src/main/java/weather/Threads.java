@@ -0,0 +1,32 @@
+package weather;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// One thread per task: virtual threads where the runtime has them (looked up reflectively,
+// as we build for 17), otherwise a cached pool of small-stack daemon threads
+final class Threads {
+    private Threads() {
+    }
+
+    static boolean hasVirtualThreads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    static ExecutorService newThreadPerTaskExecutor(String name) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(null, r, name, 256 * 1024);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
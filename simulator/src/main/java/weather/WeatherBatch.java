@@ -0,0 +1,142 @@
+package weather;
+
+import java.util.*;
+
+// Struct-of-arrays observation batch: one flat column per field, no per-reading objects
+final class WeatherBatch {
+    private long[] timestamps;
+    private final double[][] columns = new double[WeatherData.FIELD_COUNT][];
+    private byte[] present;
+    private int size;
+    // Bumped whenever existing rows move or disappear (appends leave it alone)
+    private int version;
+
+    WeatherBatch(int capacity) {
+        timestamps = new long[capacity];
+        present = new byte[capacity];
+        for (int f = 0; f < columns.length; f++) columns[f] = new double[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+        version++;
+    }
+
+    int version() {
+        return version;
+    }
+
+    long timestamp(int i) {
+        return timestamps[i];
+    }
+
+    boolean has(int i, int field) {
+        return (present[i] & (1 << field)) != 0;
+    }
+
+    int presentMask(int i) {
+        return present[i];
+    }
+
+    double value(int i, int field) {
+        return columns[field][i];
+    }
+
+    // Backing column for bulk loops; only the first size() entries are meaningful
+    double[] column(int field) {
+        return columns[field];
+    }
+
+    long[] timestamps() {
+        return timestamps;
+    }
+
+    int add(long timestamp, int presentMask, double temperature, double humidity, double windSpeed,
+            double precipitation, double pressure, double uvIndex) {
+        ensureCapacity(size + 1);
+        int i = size++;
+        timestamps[i] = timestamp;
+        present[i] = (byte) presentMask;
+        columns[WeatherData.TEMPERATURE][i] = temperature;
+        columns[WeatherData.HUMIDITY][i] = humidity;
+        columns[WeatherData.WIND_SPEED][i] = windSpeed;
+        columns[WeatherData.PRECIPITATION][i] = precipitation;
+        columns[WeatherData.PRESSURE][i] = pressure;
+        columns[WeatherData.UV_INDEX][i] = uvIndex;
+        return i;
+    }
+
+    int add(WeatherData data) {
+        return add(data.timestamp, data.present, data.temperature, data.humidity, data.windSpeed,
+                data.precipitation, data.pressure, data.uvIndex);
+    }
+
+    // Appends rows [from, to) of another batch
+    void addAll(WeatherBatch src, int from, int to) {
+        int n = to - from;
+        ensureCapacity(size + n);
+        System.arraycopy(src.timestamps, from, timestamps, size, n);
+        System.arraycopy(src.present, from, present, size, n);
+        for (int f = 0; f < columns.length; f++) System.arraycopy(src.columns[f], from, columns[f], size, n);
+        size += n;
+    }
+
+    void get(int i, WeatherData dst) {
+        dst.timestamp = timestamps[i];
+        dst.present = present[i];
+        dst.temperature = columns[WeatherData.TEMPERATURE][i];
+        dst.humidity = columns[WeatherData.HUMIDITY][i];
+        dst.windSpeed = columns[WeatherData.WIND_SPEED][i];
+        dst.precipitation = columns[WeatherData.PRECIPITATION][i];
+        dst.pressure = columns[WeatherData.PRESSURE][i];
+        dst.uvIndex = (int) columns[WeatherData.UV_INDEX][i];
+    }
+
+    // Index of the first row with timestamp >= the given time; rows must be in time order
+    int lowerBound(long timestamp) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (timestamps[mid] < timestamp) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    void removeFirst(int count) {
+        int remaining = size - count;
+        System.arraycopy(timestamps, count, timestamps, 0, remaining);
+        System.arraycopy(present, count, present, 0, remaining);
+        for (double[] column : columns) System.arraycopy(column, count, column, 0, remaining);
+        size = remaining;
+        version++;
+    }
+
+    // Drops rows whose keep flag is false, preserving order; returns the new size
+    int retain(boolean[] keep) {
+        int out = 0;
+        for (int i = 0; i < size; i++) {
+            if (!keep[i]) continue;
+            if (out != i) {
+                timestamps[out] = timestamps[i];
+                present[out] = present[i];
+                for (double[] column : columns) column[out] = column[i];
+            }
+            out++;
+        }
+        version++;
+        return size = out;
+    }
+
+    void ensureCapacity(int capacity) {
+        if (capacity <= timestamps.length) return;
+        int grown = Math.max(capacity, timestamps.length + (timestamps.length >> 1) + 16);
+        timestamps = Arrays.copyOf(timestamps, grown);
+        present = Arrays.copyOf(present, grown);
+        for (int f = 0; f < columns.length; f++) columns[f] = Arrays.copyOf(columns[f], grown);
+    }
+}
@@ -0,0 +1,116 @@
+package weather;
+
+import java.io.*;
+import java.util.*;
+
+// Weather data model: primitive values plus a presence bitmask instead of nulls
+class WeatherData implements Serializable {
+    private static final long serialVersionUID = 1L;
+    static final int TEMPERATURE = 0;
+    static final int HUMIDITY = 1;
+    static final int WIND_SPEED = 2;
+    static final int PRECIPITATION = 3;
+    static final int PRESSURE = 4;
+    static final int UV_INDEX = 5;
+    static final int FIELD_COUNT = 6;
+    static final int ALL_PRESENT = (1 << FIELD_COUNT) - 1;
+    static final String[] FIELD_NAMES = {"temperature", "humidity", "windSpeed", "precipitation", "pressure", "uvIndex"};
+    // Accepted range per field, shared by the input form and bulk import
+    static final double[] VALID_MIN = {-50, 0, 0, 0, 800, 0};
+    static final double[] VALID_MAX = {50, 100, 200, 500, 1100, 11};
+
+    // Serialized form of the old boxed model, kept so legacy weather_data.dat files still load
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("temperature", Double.class),
+        new ObjectStreamField("humidity", Double.class),
+        new ObjectStreamField("windSpeed", Double.class),
+        new ObjectStreamField("precipitation", Double.class),
+        new ObjectStreamField("pressure", Double.class),
+        new ObjectStreamField("uvIndex", Integer.class),
+        new ObjectStreamField("timestamp", Date.class)
+    };
+
+    double temperature = 20.0;
+    double humidity = 60.0;
+    double windSpeed = 10.0;
+    double precipitation = 0.0;
+    double pressure = 1013.0;
+    int uvIndex = 3;
+    int present = ALL_PRESENT;
+    long timestamp = System.currentTimeMillis();
+
+    // Field index for a FIELD_NAMES entry, or -1
+    static int fieldIndex(String name) {
+        for (int i = 0; i < FIELD_NAMES.length; i++) {
+            if (FIELD_NAMES[i].equals(name)) return i;
+        }
+        return -1;
+    }
+
+    boolean has(int field) {
+        return (present & (1 << field)) != 0;
+    }
+
+    double get(int field) {
+        switch (field) {
+            case TEMPERATURE: return temperature;
+            case HUMIDITY: return humidity;
+            case WIND_SPEED: return windSpeed;
+            case PRECIPITATION: return precipitation;
+            case PRESSURE: return pressure;
+            case UV_INDEX: return uvIndex;
+            default: throw new IllegalArgumentException("Unknown field " + field);
+        }
+    }
+
+    void set(int field, double value) {
+        switch (field) {
+            case TEMPERATURE: temperature = value; break;
+            case HUMIDITY: humidity = value; break;
+            case WIND_SPEED: windSpeed = value; break;
+            case PRECIPITATION: precipitation = value; break;
+            case PRESSURE: pressure = value; break;
+            case UV_INDEX: uvIndex = (int) value; break;
+            default: throw new IllegalArgumentException("Unknown field " + field);
+        }
+        present |= 1 << field;
+    }
+
+    void clear(int field) {
+        present &= ~(1 << field);
+    }
+
+    // True when the field is present and strictly above the threshold
+    boolean above(int field, double threshold) {
+        return has(field) && get(field) > threshold;
+    }
+
+    void copyFrom(WeatherData other) {
+        temperature = other.temperature;
+        humidity = other.humidity;
+        windSpeed = other.windSpeed;
+        precipitation = other.precipitation;
+        pressure = other.pressure;
+        uvIndex = other.uvIndex;
+        present = other.present;
+        timestamp = other.timestamp;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField f = in.readFields();
+        present = 0;
+        readLegacy(f, "temperature", TEMPERATURE);
+        readLegacy(f, "humidity", HUMIDITY);
+        readLegacy(f, "windSpeed", WIND_SPEED);
+        readLegacy(f, "precipitation", PRECIPITATION);
+        readLegacy(f, "pressure", PRESSURE);
+        readLegacy(f, "uvIndex", UV_INDEX);
+        Date date = (Date) f.get("timestamp", null);
+        timestamp = date != null ? date.getTime() : System.currentTimeMillis();
+    }
+
+    private void readLegacy(ObjectInputStream.GetField f, String name, int field) throws IOException {
+        Number value = (Number) f.get(name, null);
+        if (value != null) set(field, value.doubleValue());
+    }
+}
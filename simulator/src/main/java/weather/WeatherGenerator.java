@@ -0,0 +1,189 @@
+package weather;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Stochastic multi-station weather generator. Each station owns a SplittableRandom
+// derived from (seed, station id), so output is reproducible regardless of how the
+// fork-join pool schedules stations across cores.
+final class WeatherGenerator {
+    private static final int STATIONS_PER_TASK = 16;
+
+    private final long seed;
+    private final long stepMillis;
+
+    WeatherGenerator(long seed, long stepMillis) {
+        this.seed = seed;
+        this.stepMillis = stepMillis;
+    }
+
+    Station station(int id, long startMillis) {
+        return new Station(new SplittableRandom(seedFor(seed, id)), startMillis, stepMillis);
+    }
+
+    // Seed of the index-th stream under a root seed. SplittableRandom(s + k * gamma) replays
+    // SplittableRandom(s) k draws later, so a linear seed + index * c can hand out lagged copies
+    // of one stream; mixing both through the 64-bit finalizer keeps the streams unrelated.
+    static long seedFor(long seed, long index) {
+        return mix64(mix64(seed) + index);
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Generates `steps` consecutive readings for stations 0..count-1 on the common pool
+    WeatherBatch[] generate(int count, int steps, long startMillis) {
+        WeatherBatch[] out = new WeatherBatch[count];
+        ForkJoinPool.commonPool().invoke(new GenerateTask(out, 0, count, steps, startMillis));
+        return out;
+    }
+
+    private final class GenerateTask extends RecursiveAction {
+        private final WeatherBatch[] out;
+        private final int from, to, steps;
+        private final long startMillis;
+
+        GenerateTask(WeatherBatch[] out, int from, int to, int steps, long startMillis) {
+            this.out = out;
+            this.from = from;
+            this.to = to;
+            this.steps = steps;
+            this.startMillis = startMillis;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > STATIONS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new GenerateTask(out, from, mid, steps, startMillis),
+                          new GenerateTask(out, mid, to, steps, startMillis));
+                return;
+            }
+            for (int id = from; id < to; id++) {
+                WeatherBatch batch = new WeatherBatch(steps);
+                station(id, startMillis).next(batch, steps);
+                out[id] = batch;
+            }
+        }
+    }
+
+    // Per-station state. Temperature follows a diurnal cycle plus a mean-reverting anomaly,
+    // pressure drifts around the station mean, humidity comes from the dewpoint spread,
+    // and rain and UV follow from humidity and the pressure tendency.
+    static final class Station {
+        private final SplittableRandom rng;
+        private final long stepMillis;
+        private final double dtHours;
+        private final double baseTemp, diurnalAmplitude, meanPressure, dewpointSpread, utcOffsetHours;
+        private long time;
+        private double tempAnomaly, pressure, dewpointAnomaly;
+        // Outputs of the last step
+        private double temperature, humidity, windSpeed, precipitation;
+        private int uvIndex;
+
+        Station(SplittableRandom rng, long startMillis, long stepMillis) {
+            this.rng = rng;
+            this.stepMillis = stepMillis;
+            this.dtHours = stepMillis / 3_600_000.0;
+            baseTemp = -5 + rng.nextDouble() * 30;
+            diurnalAmplitude = 3 + rng.nextDouble() * 7;
+            meanPressure = 1013 + rng.nextGaussian() * 8;
+            dewpointSpread = 2 + rng.nextDouble() * 10;
+            utcOffsetHours = rng.nextInt(24);
+            time = startMillis;
+            pressure = meanPressure + rng.nextGaussian() * 5;
+        }
+
+        // Continues from an observed reading. Climatology (daily range, dewpoint spread, mean
+        // pressure) is sampled and the state solved so the station reproduces the reading, up
+        // to small initial-condition perturbations; missing fields fall back to typical values.
+        Station(SplittableRandom rng, WeatherData observed, long stepMillis) {
+            this.rng = rng;
+            this.stepMillis = stepMillis;
+            this.dtHours = stepMillis / 3_600_000.0;
+            time = observed.timestamp;
+            utcOffsetHours = TimeZone.getDefault().getOffset(time) / 3_600_000.0;
+            double hour = ((time / 3_600_000.0) + utcOffsetHours) % 24;
+            diurnalAmplitude = 3 + rng.nextDouble() * 7;
+            dewpointSpread = 2 + rng.nextDouble() * 10;
+            meanPressure = 1013 + rng.nextGaussian() * 8;
+
+            double observedTemp = observed.has(WeatherData.TEMPERATURE) ? observed.temperature : 15;
+            tempAnomaly = rng.nextGaussian() * 2;
+            baseTemp = observedTemp + 0.3 * rng.nextGaussian()
+                    - diurnalAmplitude * Math.sin(Math.PI * (hour - 9) / 12) - tempAnomaly;
+            pressure = observed.has(WeatherData.PRESSURE) ? observed.pressure + 0.3 * rng.nextGaussian() : meanPressure;
+
+            // Invert the Magnus formula for the observed dewpoint
+            double rh = Math.max(1, observed.has(WeatherData.HUMIDITY) ? observed.humidity : 70);
+            double gamma = Math.log(rh / 100) + 17.625 * observedTemp / (243.04 + observedTemp);
+            double dewpoint = 243.04 * gamma / (17.625 - gamma);
+            dewpointAnomaly = dewpoint - baseTemp + dewpointSpread + 2 * Math.min(0, pressure - meanPressure) / 5
+                    + 0.5 * rng.nextGaussian();
+        }
+
+        void next(WeatherData dst) {
+            step();
+            dst.timestamp = time;
+            dst.present = WeatherData.ALL_PRESENT;
+            dst.temperature = temperature;
+            dst.humidity = humidity;
+            dst.windSpeed = windSpeed;
+            dst.precipitation = precipitation;
+            dst.pressure = pressure;
+            dst.uvIndex = uvIndex;
+        }
+
+        void next(WeatherBatch batch, int steps) {
+            batch.ensureCapacity(batch.size() + steps);
+            for (int i = 0; i < steps; i++) {
+                step();
+                batch.add(time, WeatherData.ALL_PRESENT, temperature, humidity, windSpeed,
+                          precipitation, pressure, uvIndex);
+            }
+        }
+
+        private void step() {
+            time += stepMillis;
+            double sqrtDt = Math.sqrt(dtHours);
+            double hour = ((time / 3_600_000.0) + utcOffsetHours) % 24;
+            double sun = Math.sin(Math.PI * (hour - 6) / 12);
+
+            // Ornstein-Uhlenbeck anomalies: ~2 day memory for temperature, ~12 h for moisture
+            tempAnomaly += -tempAnomaly * dtHours / 48 + 0.4 * sqrtDt * rng.nextGaussian();
+            dewpointAnomaly += -dewpointAnomaly * dtHours / 12 + 0.5 * sqrtDt * rng.nextGaussian();
+            double previousPressure = pressure;
+            pressure += (meanPressure - pressure) * dtHours / 72 + 0.6 * sqrtDt * rng.nextGaussian();
+            pressure = clamp(pressure, 800, 1100);
+            double tendency = (pressure - previousPressure) / dtHours;
+
+            temperature = clamp(baseTemp + diurnalAmplitude * Math.sin(Math.PI * (hour - 9) / 12) + tempAnomaly, -50, 50);
+            // Falling pressure brings moisture in; dewpoint can never exceed air temperature
+            double dewpoint = Math.min(temperature,
+                    baseTemp - dewpointSpread + dewpointAnomaly - 2 * Math.min(0, pressure - meanPressure) / 5);
+            humidity = clamp(100 * Math.exp(17.625 * dewpoint / (243.04 + dewpoint)
+                                           - 17.625 * temperature / (243.04 + temperature)), 0, 100);
+
+            windSpeed = clamp(Math.abs(5 + 8 * Math.abs(tendency) + 3 * rng.nextGaussian()
+                                       + 0.3 * Math.max(0, meanPressure - pressure)), 0, 200);
+
+            precipitation = 0;
+            if (humidity > 85 && rng.nextDouble() < (humidity - 85) / 15 * (pressure < meanPressure ? 0.8 : 0.3)) {
+                // Exponentially distributed amount, heavier with saturation and deeper lows
+                double scale = 1 + (humidity - 85) / 5 + Math.max(0, meanPressure - pressure) / 10;
+                precipitation = clamp(-Math.log(1 - rng.nextDouble()) * scale * dtHours, 0, 500);
+            }
+
+            double cloudCover = clamp((humidity - 50) / 50, 0, 1);
+            uvIndex = (int) Math.round(clamp(11 * Math.max(0, sun) * (1 - 0.7 * cloudCover), 0, 11));
+        }
+
+        private static double clamp(double v, double min, double max) {
+            return v < min ? min : v > max ? max : v;
+        }
+    }
+}
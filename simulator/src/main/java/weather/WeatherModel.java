@@ -0,0 +1,87 @@
+package weather;
+
+import java.io.*;
+
+// State shared by the panels: the current reading, the alert rules, and the recent history
+// behind the report (raw readings for the trend charts plus sliding-window aggregates)
+final class WeatherModel {
+    static final long HISTORY_MILLIS = 30 * 86_400_000L;
+
+    final AlertRules alertRules;
+    final WeatherBatch history = new WeatherBatch(1024);
+    final SlidingWindow[] windows = {
+        new SlidingWindow("Last hour", 3_600_000L),
+        new SlidingWindow("Last day", 86_400_000L),
+        new SlidingWindow("Last week", 7 * 86_400_000L)
+    };
+    WeatherData currentData = new WeatherData();
+    long historyVersion;
+    // Latest ensemble bands for the current reading; null until the first round is in
+    Nowcast.Result nowcast;
+    // Point sampled from the regional grid; when set the dashboard shows it instead
+    WeatherData liveData;
+
+    WeatherModel(AlertRules alertRules) {
+        this.alertRules = alertRules;
+    }
+
+    WeatherData displayed() {
+        return liveData != null ? liveData : currentData;
+    }
+
+    // Makes the latest stored reading current and loads the retained history behind it
+    void load(ObservationStore store) throws IOException {
+        WeatherData latest = store.latest();
+        if (latest == null) return;
+        WeatherBatch observations = new WeatherBatch(1024);
+        store.readRange(latest.timestamp - HISTORY_MILLIS, Long.MAX_VALUE, observations);
+        load(observations);
+    }
+
+    // Replaces the state with the given readings (time-ordered), keeping the retained span
+    void load(WeatherBatch observations) {
+        history.clear();
+        for (SlidingWindow window : windows) window.clear();
+        int n = observations.size();
+        currentData = new WeatherData();
+        if (n > 0) {
+            observations.get(n - 1, currentData);
+            int from = observations.lowerBound(currentData.timestamp - HISTORY_MILLIS);
+            history.addAll(observations, from, n);
+            // Each window only needs its own span; older readings would just be evicted again
+            for (SlidingWindow window : windows) {
+                for (int i = history.lowerBound(currentData.timestamp - window.lengthMillis); i < history.size(); i++) {
+                    window.add(history, i);
+                }
+            }
+        }
+        historyVersion++;
+    }
+
+    // Makes a new reading current and feeds it into the history and window aggregates
+    void record(WeatherData data) {
+        currentData = data;
+        history.add(data);
+        for (SlidingWindow window : windows) window.add(data);
+        // Trim expired readings in bulk once they make up a tenth of the buffer
+        int expired = history.lowerBound(data.timestamp - HISTORY_MILLIS);
+        if (expired > history.size() / 10) history.removeFirst(expired);
+        historyVersion++;
+    }
+
+    // Records rows [from, to) of a batch, oldest first, as record() would one by one; the last
+    // becomes current. Replay feeds its decoded chunks this way, without a WeatherData per row.
+    void record(WeatherBatch rows, int from, int to) {
+        if (from == to) return;
+        WeatherData latest = new WeatherData();
+        rows.get(to - 1, latest);
+        currentData = latest;
+        history.addAll(rows, from, to);
+        for (SlidingWindow window : windows) {
+            for (int i = from; i < to; i++) window.add(rows, i);
+        }
+        int expired = history.lowerBound(latest.timestamp - HISTORY_MILLIS);
+        if (expired > history.size() / 10) history.removeFirst(expired);
+        historyVersion += to - from;
+    }
+}
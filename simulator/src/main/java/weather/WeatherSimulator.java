@@ -0,0 +1,393 @@
+package weather;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.io.*;
+import java.util.concurrent.ForkJoinPool;
+import javax.swing.*;
+
+public class WeatherSimulator extends JFrame {
+    private static final String LEGACY_DATA_FILE = "weather_data.dat";
+    private final WeatherModel model = new WeatherModel(AlertRules.loadOrDefault(new File(AlertRules.CONFIG_FILE)));
+    private ObservationStore store;
+    private WriteBehindLog writer;
+    // Local HTTP API, started when -Dweather.httpPort is set
+    private ApiServer api;
+    // Regional grid behind the map tab and, optionally, the dashboard; created on first use
+    private RegionalGrid grid;
+    private final int gridSize = gridSizeProperty();
+    private Thread gridThread;
+    private boolean gridDriven;
+    private final FrameClock frameClock = new FrameClock();
+    private final WeatherGenerator.Station randomStation =
+            new WeatherGenerator(System.nanoTime(), 3_600_000L).station(0, System.currentTimeMillis());
+    private final DashboardPanel dashboardPanel = new DashboardPanel(model);
+    private final ReportPanel reportPanel = new ReportPanel(model, frameClock);
+    private final HeatmapPanel heatmapPanel = new HeatmapPanel(frameClock);
+    private final SensorPanel sensorPanel = new SensorPanel();
+    private SensorNetwork sensors;
+    private final Nowcast nowcast = new Nowcast(Integer.getInteger("weather.ensembleMembers", 1000),
+            result -> SwingUtilities.invokeLater(() -> {
+                // Rounds from a superseded or cancelled run may still be queued behind the newer reading
+                if (this.replayBar.isReplaying() || result.start != model.currentData.timestamp) return;
+                model.nowcast = result;
+                reportPanel.repaint();
+            }));
+    private final ReplayBar replayBar = new ReplayBar(model, frameClock, nowcast::cancel,
+            () -> {
+                reportPanel.repaint();
+                frameClock.wake();
+            }, () -> nowcast.submit(model.currentData));
+
+    public WeatherSimulator() {
+        super("Professional Weather Simulator");
+        setupUI();
+        loadData();
+        setSize(1000, 700);
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setLocationRelativeTo(null);
+        // Let queued readings reach the log before the VM exits
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                if (writer != null) writer.close();
+                if (api != null) api.close();
+                if (sensors != null) sensors.close();
+            }
+        });
+    }
+
+    private void setupUI() {
+        JTabbedPane tabbedPane = new JTabbedPane();
+        tabbedPane.addTab("Dashboard", dashboardPanel);
+        JScrollPane reportScroll = new JScrollPane(reportPanel);
+        reportScroll.getVerticalScrollBar().setUnitIncrement(16);
+        tabbedPane.addTab("Weather Report", reportScroll);
+        tabbedPane.addTab("Regional Map", createMapPanel());
+        tabbedPane.addTab("Sensor Network", createSensorPanel());
+        tabbedPane.addTab("Input Data", createInputPanel());
+        heatmapPanel.addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) updateGrid();
+        });
+
+        add(tabbedPane);
+        add(replayBar, BorderLayout.SOUTH);
+        dashboardPanel.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke("F3"), "toggleOverlay");
+        dashboardPanel.getActionMap().put("toggleOverlay", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                dashboardPanel.setOverlay(!dashboardPanel.isOverlay());
+                frameClock.wake();
+            }
+        });
+        frameClock.register(dashboardPanel);
+        frameClock.register(reportPanel);
+        frameClock.register(sensorPanel);
+        frameClock.register(heatmapPanel);
+        frameClock.register(replayBar);
+        // Samples the grid into the dashboard while it drives it
+        frameClock.register(dashboardPanel, new FrameClock.Animated() {
+            @Override
+            public long stepMillis() {
+                return 250;
+            }
+
+            @Override
+            public void step() {
+                sampleGrid();
+            }
+
+            @Override
+            public boolean isAnimating() {
+                return gridDriven;
+            }
+
+            @Override
+            public Rectangle dirtyRegion() {
+                return FrameClock.NOTHING;
+            }
+        });
+    }
+
+    private JPanel createMapPanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controls.add(new JLabel("Field:"));
+        JComboBox<String> fieldBox = new JComboBox<>(HeatmapPanel.FIELD_LABELS);
+        fieldBox.addActionListener(e -> heatmapPanel.setField(HeatmapPanel.FIELDS[fieldBox.getSelectedIndex()]));
+        controls.add(fieldBox);
+        JCheckBox liveBox = new JCheckBox("Live", true);
+        liveBox.addItemListener(e -> heatmapPanel.setLive(liveBox.isSelected()));
+        controls.add(liveBox);
+        controls.add(new JLabel("Drag to pan, scroll to zoom"));
+        panel.add(controls, BorderLayout.NORTH);
+        panel.add(heatmapPanel, BorderLayout.CENTER);
+        return panel;
+    }
+
+    private JPanel createSensorPanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controls.add(new JLabel("Stations:"));
+        JSpinner stationsSpinner = new JSpinner(new SpinnerNumberModel(Integer.getInteger("weather.sensors", 2000).intValue(), 1, 100_000, 500));
+        controls.add(stationsSpinner);
+        controls.add(new JLabel("Interval per sensor (ms):"));
+        JSpinner intervalSpinner = new JSpinner(new SpinnerNumberModel(10, 0, 1000, 1));
+        controls.add(intervalSpinner);
+        JToggleButton runButton = new JToggleButton("Start");
+        runButton.addItemListener(e -> {
+            boolean on = runButton.isSelected();
+            runButton.setText(on ? "Stop" : "Start");
+            stationsSpinner.setEnabled(!on);
+            intervalSpinner.setEnabled(!on);
+            setSensorsRunning(on, (Integer) stationsSpinner.getValue(), (Integer) intervalSpinner.getValue());
+        });
+        controls.add(runButton);
+        panel.add(controls, BorderLayout.NORTH);
+        panel.add(sensorPanel, BorderLayout.CENTER);
+        return panel;
+    }
+
+    private void setSensorsRunning(boolean on, int stations, int intervalMillis) {
+        if (sensors != null) {
+            // Sensors notice within one interval; don't hold the EDT while they wind down
+            ForkJoinPool.commonPool().execute(sensors::close);
+            sensors = null;
+        }
+        if (on) {
+            sensors = new SensorNetwork(stations, intervalMillis * 1_000_000L, System.nanoTime());
+            sensors.start();
+            sensorPanel.setNetwork(sensors);
+            frameClock.wake();
+        }
+    }
+
+    private JPanel createInputPanel() {
+        JPanel panel = new JPanel(new GridBagLayout());
+        panel.setBackground(new Color(240, 245, 250));
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(10, 10, 10, 10);
+        gbc.anchor = GridBagConstraints.WEST;
+
+        String[] labels = {"Temperature (°C):", "Humidity (%):", "Wind Speed (km/h):", 
+                          "Precipitation (mm):", "Pressure (hPa):", "UV Index:"};
+        JTextField[] fields = new JTextField[labels.length];
+        JCheckBox[] checkboxes = new JCheckBox[labels.length];
+
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        panel.add(new JLabel("<html><b>Weather Parameters:</b></html>"), gbc);
+
+        for (int i = 0; i < labels.length; i++) {
+            final int idx = i;  // Final copy for lambda capture
+            
+            gbc.gridy = i + 1;
+            gbc.gridx = 0;
+            panel.add(new JLabel(labels[i]), gbc);
+
+            gbc.gridx = 1;
+            fields[i] = new JTextField(10);
+            panel.add(fields[i], gbc);
+
+            gbc.gridx = 2;
+            checkboxes[i] = new JCheckBox("N/A");
+            checkboxes[i].addItemListener(e -> 
+                fields[idx].setEnabled(!checkboxes[idx].isSelected())
+            );
+            panel.add(checkboxes[i], gbc);
+        }
+
+        gbc.gridy = labels.length + 1;
+        gbc.gridx = 0;
+        gbc.gridwidth = 3;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+
+        JButton saveBtn = new JButton("Save Data");
+        saveBtn.setBackground(new Color(70, 130, 180));
+        saveBtn.setForeground(Color.WHITE);
+        saveBtn.setFont(RenderAssets.BUTTON_FONT);
+        saveBtn.addActionListener(e -> saveData(fields, checkboxes));
+        panel.add(saveBtn, gbc);
+
+        gbc.gridy++;
+        JButton randomBtn = new JButton("Generate Random Data");
+        randomBtn.addActionListener(e -> generateRandomData(fields, checkboxes));
+        panel.add(randomBtn, gbc);
+
+        gbc.gridy++;
+        JCheckBox gridBox = new JCheckBox("Drive dashboard from regional grid simulation");
+        gridBox.setOpaque(false);
+        gridBox.addItemListener(e -> setGridDriven(gridBox.isSelected()));
+        panel.add(gridBox, gbc);
+
+        return panel;
+    }
+
+    private void saveData(JTextField[] fields, JCheckBox[] checkboxes) {
+        try {
+            long start = System.nanoTime();
+            WeatherData data = new WeatherData();
+            for (int i = 0; i < WeatherData.UV_INDEX; i++) {
+                if (!checkboxes[i].isSelected())
+                    data.set(i, parseDouble(fields[i].getText(), WeatherData.VALID_MIN[i], WeatherData.VALID_MAX[i]));
+            }
+            if (!checkboxes[5].isSelected()) data.uvIndex = parseInt(fields[5].getText(),
+                    (int) WeatherData.VALID_MIN[WeatherData.UV_INDEX], (int) WeatherData.VALID_MAX[WeatherData.UV_INDEX]);
+            Metrics.PARSE.record(System.nanoTime() - start);
+            
+            if (writer == null) throw new IOException("observation store is not available");
+            if (!writer.offer(data)) throw new IOException("the writer is falling behind, try again shortly");
+            // While replaying, the model holds the past; the reading shows once replay ends
+            if (!replayBar.isReplaying()) {
+                model.record(data);
+                nowcast.submit(data);
+                frameClock.wake();
+            }
+            if (api != null) api.publish(data);
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid input: " + ex.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Error saving data: " + ex.getMessage(), "File Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void setGridDriven(boolean on) {
+        gridDriven = on;
+        updateGrid();
+        if (on) {
+            sampleGrid();
+            frameClock.wake();
+        } else {
+            model.liveData = null;
+            frameClock.wake();
+        }
+    }
+
+    // -Dweather.gridSize, checked at startup so a bad value can't throw later on the EDT
+    private static int gridSizeProperty() {
+        String value = System.getProperty("weather.gridSize");
+        if (value == null) return RegionalGrid.DEFAULT_SIZE;
+        try {
+            int n = Integer.parseInt(value.trim());
+            if (RegionalGrid.isValidSize(n)) return n;
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        System.err.println("Ignoring -Dweather.gridSize=" + value + " (expected a positive multiple of "
+                + RegionalGrid.TILE + "), using " + RegionalGrid.DEFAULT_SIZE);
+        return RegionalGrid.DEFAULT_SIZE;
+    }
+
+    // Steps the grid on a background thread (capped at 20 steps/s) while it drives the
+    // dashboard or the map tab is showing
+    private void updateGrid() {
+        boolean run = gridDriven || heatmapPanel.isShowing();
+        if (run && grid == null) {
+            grid = new RegionalGrid(gridSize, System.nanoTime(), System.currentTimeMillis());
+            heatmapPanel.setGrid(grid);
+        }
+        if (run && gridThread == null) {
+            RegionalGrid running = grid;
+            gridThread = new Thread(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    long start = System.nanoTime();
+                    running.step();
+                    long elapsed = System.nanoTime() - start;
+                    Metrics.GRID_STEP.record(elapsed);
+                    try {
+                        Thread.sleep(Math.max(0, 50 - elapsed / 1_000_000L));
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }, "regional-grid");
+            gridThread.setDaemon(true);
+            gridThread.start();
+        } else if (!run && gridThread != null) {
+            gridThread.interrupt();
+            gridThread = null;
+        }
+    }
+
+    private void sampleGrid() {
+        WeatherData data = new WeatherData();
+        grid.sample(0.5, 0.5, data);
+        model.liveData = data;
+    }
+
+    // Each click advances one simulated hour, so successive readings stay correlated
+    private void generateRandomData(JTextField[] fields, JCheckBox[] checkboxes) {
+        WeatherData data = new WeatherData();
+        randomStation.next(data);
+        if (!checkboxes[0].isSelected()) fields[0].setText(String.format("%.1f", data.temperature));
+        if (!checkboxes[1].isSelected()) fields[1].setText(String.format("%.0f", data.humidity));
+        if (!checkboxes[2].isSelected()) fields[2].setText(String.format("%.1f", data.windSpeed));
+        if (!checkboxes[3].isSelected()) fields[3].setText(String.format("%.1f", data.precipitation));
+        if (!checkboxes[4].isSelected()) fields[4].setText(String.format("%.1f", data.pressure));
+        if (!checkboxes[5].isSelected()) fields[5].setText(String.format("%d", data.uvIndex));
+    }
+
+    static double parseDouble(String text, double min, double max) {
+        double value = Double.parseDouble(text);
+        if (value < min || value > max) 
+            throw new NumberFormatException("Value must be between " + min + " and " + max);
+        return value;
+    }
+
+    static int parseInt(String text, int min, int max) {
+        int value = Integer.parseInt(text);
+        if (value < min || value > max) 
+            throw new NumberFormatException("Value must be between " + min + " and " + max);
+        return value;
+    }
+
+    private void loadData() {
+        long start = System.nanoTime();
+        try {
+            store = ObservationStore.open(new File(Main.DATA_DIR));
+            if (store.size() == 0) importLegacyData();
+            replayBar.setStore(store);
+            model.load(store);
+            Metrics.LOAD.record(System.nanoTime() - start);
+            nowcast.submit(model.currentData);
+            // Saving is confirmed once the writer has committed the reading, not when it is queued
+            writer = WriteBehindLog.fromSystemProperties(store, data -> SwingUtilities.invokeLater(() ->
+                    JOptionPane.showMessageDialog(this, "Data saved successfully!", "Success", JOptionPane.INFORMATION_MESSAGE)),
+                    e -> SwingUtilities.invokeLater(() ->
+                    JOptionPane.showMessageDialog(this, "Error saving data: " + e.getMessage(), "File Error", JOptionPane.ERROR_MESSAGE)));
+        } catch (Exception e) {
+            System.err.println("Error loading data: " + e.getMessage());
+        }
+        Integer port = Integer.getInteger("weather.httpPort");
+        if (port != null && store != null) {
+            try {
+                api = new ApiServer(store, port);
+                if (store.size() > 0) api.publish(model.currentData);
+            } catch (IOException e) {
+                System.err.println("HTTP API not started: " + e.getMessage());
+            }
+        }
+    }
+
+    // One-time migration of the old single-object file into the observation log
+    private void importLegacyData() throws IOException, ClassNotFoundException {
+        File legacy = new File(LEGACY_DATA_FILE);
+        if (!legacy.exists()) return;
+        // The file was written by the old single-class build, where the model was q.WeatherData
+        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(legacy)) {
+            @Override
+            protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+                ObjectStreamClass descriptor = super.readClassDescriptor();
+                return descriptor.getName().equals("q$WeatherData") ? ObjectStreamClass.lookup(WeatherData.class) : descriptor;
+            }
+        }) {
+            store.append((WeatherData) ois.readObject());
+        }
+    }
+
+    // The GUI; command-line modes start from Main
+    static void launch() {
+        Metrics.install(Long.getLong("weather.edtStallMillis", 200));
+        SwingUtilities.invokeLater(() -> new WeatherSimulator().setVisible(true));
+    }
+}
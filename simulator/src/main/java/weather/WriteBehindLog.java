@@ -0,0 +1,128 @@
+package weather;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+// Background writer for the observation log, so saving never touches the disk on the caller's
+// thread. Readings queue up in a bounded queue; the writer drains whatever has accumulated into
+// one batch per commit, so a burst of saves costs one header update and at most one fsync.
+final class WriteBehindLog implements Closeable {
+    // NONE leaves flushing to the OS. INTERVAL forces at most every syncMillis and only then
+    // publishes the on-disk counts, after the records, so a crash loses at most that interval.
+    // ALWAYS forces each group before its records become visible in the log.
+    enum Sync { NONE, INTERVAL, ALWAYS }
+
+    private static final int MAX_GROUP = 1024;
+
+    private final ObservationStore store;
+    private final BlockingQueue<WeatherData> queue;
+    private final Sync sync;
+    private final long syncNanos;
+    private final Consumer<WeatherData> onCommitted;
+    private final Consumer<Exception> onError;
+    private final WeatherBatch group = new WeatherBatch(MAX_GROUP);
+    private final ArrayList<WeatherData> drained = new ArrayList<>(MAX_GROUP);
+    private final ArrayList<WeatherData> accepted = new ArrayList<>(MAX_GROUP);
+    private final Thread thread;
+    private volatile boolean closed;
+
+    // onCommitted runs on the writer thread for each reading once its group is in the log,
+    // and forced to disk under ALWAYS; rejected and failed readings go to onError instead
+    WriteBehindLog(ObservationStore store, int capacity, Sync sync, long syncMillis,
+                   Consumer<WeatherData> onCommitted, Consumer<Exception> onError) {
+        this.store = store;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.sync = sync;
+        this.syncNanos = syncMillis * 1_000_000L;
+        this.onCommitted = onCommitted;
+        this.onError = onError;
+        thread = new Thread(this::run, "observation-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Settings from -Dweather.fsync=none|interval|always and -Dweather.fsyncMillis
+    static WriteBehindLog fromSystemProperties(ObservationStore store, Consumer<WeatherData> onCommitted,
+                                               Consumer<Exception> onError) {
+        String name = System.getProperty("weather.fsync", "interval");
+        Sync sync;
+        try {
+            sync = Sync.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown -Dweather.fsync=" + name + " (expected none, interval or always), using interval");
+            sync = Sync.INTERVAL;
+        }
+        return new WriteBehindLog(store, 4096, sync, Long.getLong("weather.fsyncMillis", 1000), onCommitted, onError);
+    }
+
+    // Queues a reading without blocking; false if the writer has fallen a full queue behind
+    boolean offer(WeatherData data) {
+        return !closed && queue.offer(data);
+    }
+
+    private void run() {
+        long lastSync = System.nanoTime();
+        boolean unsynced = false;
+        while (!closed || !queue.isEmpty()) {
+            try {
+                WeatherData first = queue.poll(100, java.util.concurrent.TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    drained.clear();
+                    drained.add(first);
+                    queue.drainTo(drained, MAX_GROUP - 1);
+                    group.clear();
+                    accepted.clear();
+                    long latest = store.size() > 0 ? store.timestampAt(store.size() - 1) : Long.MIN_VALUE;
+                    int rejected = 0;
+                    for (WeatherData data : drained) {
+                        // The log is time-ordered; a reading from before the latest one (say, after
+                        // the wall clock stepped back) is dropped on its own, not with its group
+                        if (data.timestamp < latest) {
+                            rejected++;
+                            continue;
+                        }
+                        group.add(data);
+                        accepted.add(data);
+                        latest = data.timestamp;
+                    }
+                    if (group.size() > 0) {
+                        long start = System.nanoTime();
+                        if (sync == Sync.INTERVAL) store.appendDeferred(group);
+                        else store.append(group, sync == Sync.ALWAYS);
+                        Metrics.SAVE.record(System.nanoTime() - start);
+                        unsynced = sync == Sync.INTERVAL;
+                        for (WeatherData data : accepted) onCommitted.accept(data);
+                    }
+                    if (rejected > 0) {
+                        onError.accept(new IllegalArgumentException(rejected + " reading(s) older than the latest record were not saved"));
+                    }
+                }
+                if (unsynced && System.nanoTime() - lastSync >= syncNanos) {
+                    store.force();
+                    lastSync = System.nanoTime();
+                    unsynced = false;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                onError.accept(e);
+            }
+        }
+    }
+
+    // Writes out everything queued so far, then forces it to disk unless the policy is NONE
+    @Override
+    public void close() {
+        // No interrupt: it would close the store's channels mid-write; the poll times out instead
+        closed = true;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (sync != Sync.NONE) store.force();
+    }
+}
@@ -0,0 +1,109 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class AlertRulesTest {
+    private static AlertRules rules(String... lines) throws IOException {
+        return AlertRules.parse(new StringReader(String.join("\n", lines)));
+    }
+
+    private static WeatherData reading(double temperature, double humidity) {
+        WeatherData data = new WeatherData();
+        data.temperature = temperature;
+        data.humidity = humidity;
+        data.uvIndex = 0;
+        data.windSpeed = 0;
+        data.precipitation = 0;
+        return data;
+    }
+
+    @Test
+    void firstMatchInAGroupWins() throws IOException {
+        AlertRules rules = rules(
+                "uv: uvIndex > 8 => extreme",
+                "uv: uvIndex > 5 => high");
+        WeatherData data = reading(20, 50);
+        data.uvIndex = 9;
+        assertEquals(List.of("extreme"), rules.messages(rules.evaluate(data)));
+        data.uvIndex = 6;
+        assertEquals(List.of("high"), rules.messages(rules.evaluate(data)));
+        data.uvIndex = 2;
+        assertEquals(List.of(), rules.messages(rules.evaluate(data)));
+    }
+
+    @Test
+    void groupsFireIndependently() throws IOException {
+        AlertRules rules = rules(
+                "temperature: temperature > 30 => hot",
+                "humidity: humidity > 80 => humid",
+                "otherwise => normal");
+        assertEquals(List.of("hot", "humid"), rules.messages(rules.evaluate(reading(35, 90))));
+        assertEquals(List.of("normal"), rules.messages(rules.evaluate(reading(20, 50))));
+    }
+
+    @Test
+    void otherwiseWaitsForRulesAfterIt() throws IOException {
+        AlertRules rules = rules(
+                "otherwise => normal",
+                "temperature: temperature > 30 => hot");
+        assertEquals(List.of("hot"), rules.messages(rules.evaluate(reading(35, 50))));
+        assertEquals(List.of("normal"), rules.messages(rules.evaluate(reading(20, 50))));
+        WeatherBatch batch = new WeatherBatch(2);
+        batch.add(reading(35, 50));
+        batch.add(reading(20, 50));
+        long[] fired = new long[2];
+        rules.evaluate(batch, fired);
+        assertEquals(List.of("hot"), rules.messages(fired[0]));
+        assertEquals(List.of("normal"), rules.messages(fired[1]));
+    }
+
+    @Test
+    void absentFieldsNeverMatch()throws IOException {
+        AlertRules rules = rules("temperature: temperature present => seen", "otherwise => nothing");
+        WeatherData data = reading(20, 50);
+        assertEquals(List.of("seen"), rules.messages(rules.evaluate(data)));
+        data.clear(WeatherData.TEMPERATURE);
+        assertEquals(List.of("nothing"), rules.messages(rules.evaluate(data)));
+    }
+
+    @Test
+    void batchEvaluationMatchesPerReading() throws IOException {
+        AlertRules rules = AlertRules.parse(new StringReader(AlertRules.DEFAULT_CONFIG));
+        WeatherBatch batch = new WeatherBatch(16);
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 2000; i++) {
+            WeatherData data = new WeatherData();
+            data.timestamp = i;
+            for (int f = 0; f < WeatherData.FIELD_COUNT; f++) {
+                data.set(f, WeatherData.VALID_MIN[f] + random.nextDouble() * (WeatherData.VALID_MAX[f] - WeatherData.VALID_MIN[f]));
+                if (random.nextInt(8) == 0) data.clear(f);
+            }
+            batch.add(data);
+        }
+        long[] fired = new long[batch.size()];
+        AlertRules.Hits hits = rules.evaluate(batch, fired);
+        long[] counts = new long[rules.size()];
+        WeatherData row = new WeatherData();
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i, row);
+            assertEquals(rules.evaluate(row), fired[i], "row " + i);
+            for (long bits = fired[i]; bits != 0; bits &= bits - 1) counts[Long.numberOfTrailingZeros(bits)]++;
+        }
+        assertArrayEquals(counts, hits.counts);
+    }
+
+    @Test
+    void rejectsMalformedRules() {
+        assertThrows(IllegalArgumentException.class, () -> rules("temperature > 30 => no group"));
+        assertThrows(IllegalArgumentException.class, () -> rules("t: temperature >> 30 => bad op"));
+        assertThrows(IllegalArgumentException.class, () -> rules("t: temp > 30 => bad field"));
+        assertThrows(IllegalArgumentException.class, () -> rules("t: temperature > hot => bad value"));
+        assertThrows(IllegalArgumentException.class, () -> rules("t: temperature > 30"));
+    }
+}
@@ -0,0 +1,207 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ApiServerTest {
+    private static final long T0 = 1_700_000_000_000L;
+
+    @TempDir
+    Path dir;
+    private ObservationStore store;
+    private ApiServer api;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void start() throws IOException {
+        store = ObservationStore.open(dir.resolve("store").toFile());
+        api = new ApiServer(store, 0);
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        api.close();
+        store.close();
+    }
+
+    private static WeatherData reading(long timestamp, int i) {
+        WeatherData data = new WeatherData();
+        data.timestamp = timestamp;
+        data.temperature = -10 + i % 40 + 0.25;
+        data.humidity = i % 100;
+        data.windSpeed = i % 7 * 1.5;
+        data.precipitation = i % 3 == 0 ? 0 : 0.5;
+        data.pressure = 990 + i % 40;
+        data.uvIndex = i % 11;
+        if (i % 5 == 0) data.clear(WeatherData.PRESSURE);
+        return data;
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + api.port() + path)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String json(WeatherData data) {
+        StringBuilder sb = new StringBuilder();
+        ApiServer.appendJson(sb, data);
+        return sb.toString();
+    }
+
+    @Test
+    void historyValidatesItsParameters() throws Exception {
+        for (String query : new String[]{"limit=0", "limit=-1", "limit=" + (ApiServer.MAX_HISTORY_LIMIT + 1), "limit=ten",
+                "from=yesterday", "to=2024-13-45T00:00:00Z"}) {
+            HttpResponse<String> response = get("/api/history?" + query);
+            assertEquals(400, response.statusCode(), query);
+            assertTrue(response.body().startsWith("{\"error\":"), query);
+        }
+        assertEquals(404, get("/api/current").statusCode());
+        HttpRequest post = HttpRequest.newBuilder(URI.create("http://localhost:" + api.port() + "/api/history"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build();
+        assertEquals(405, client.send(post, HttpResponse.BodyHandlers.discarding()).statusCode());
+    }
+
+    @Test
+    void historyIsHalfOpenAndLimited() throws Exception {
+        for (int i = 0; i < 100; i++) store.append(reading(T0 + i * 60_000L, i));
+        // Epoch millis and ISO-8601 name the same instants
+        String from = String.valueOf(T0 + 10 * 60_000L);
+        String to = Instant.ofEpochMilli(T0 + 20 * 60_000L).toString();
+        String body = get("/api/history?from=" + from + "&to=" + to).body();
+        assertEquals(10, body.split("\\},\\{").length);
+        assertTrue(body.startsWith("[" + json(store.get(10)) + ","));
+        assertTrue(body.endsWith("," + json(store.get(19)) + "]"));
+        assertEquals("[" + json(store.get(0)) + "," + json(store.get(1)) + "]", get("/api/history?limit=2").body());
+        assertEquals("[]", get("/api/history?from=" + (T0 + 100 * 60_000L)).body());
+    }
+
+    @Test
+    void historyLoadsBackThroughTheImporter() throws Exception {
+        int rows = 3_000;
+        WeatherBatch batch = new WeatherBatch(rows);
+        for (int i = 0; i < rows; i++) batch.add(reading(T0 + i * 1000L, i));
+        store.append(batch);
+        String body = get("/api/history?limit=" + rows).body();
+        // One object per line turns the array into NDJSON
+        Path ndjson = dir.resolve("history.ndjson");
+        Files.writeString(ndjson, body.substring(1, body.length() - 1).replace("},{", "}\n{") + "\n");
+        try (ObservationStore copy = ObservationStore.open(dir.resolve("copy").toFile())) {
+            new ObservationImporter(copy).importFile(ndjson.toFile());
+            assertEquals(rows, copy.size());
+            for (int i = 0; i < rows; i++) assertEquals(json(store.get(i)), json(copy.get(i)), "row " + i);
+        }
+    }
+
+    // Reads server-sent events as (id, data) pairs, checking each event's framing
+    private static final class Events implements AutoCloseable {
+        private final BufferedReader reader;
+
+        Events(HttpResponse<InputStream> response) {
+            assertEquals("text/event-stream", response.headers().firstValue("Content-Type").orElse(null));
+            reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.US_ASCII));
+        }
+
+        String[] next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null && line.startsWith(":")) {
+                assertEquals("", reader.readLine(), "heartbeat framing");
+            }
+            assertNotNull(line, "stream ended");
+            assertTrue(line.startsWith("id: "), line);
+            assertEquals("event: observation", reader.readLine());
+            String data = reader.readLine();
+            assertTrue(data.startsWith("data: "), data);
+            assertEquals("", reader.readLine(), "event framing");
+            return new String[]{line.substring(4), data.substring(6)};
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private Events stream(String lastEventId) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + api.port() + "/api/stream"));
+        if (lastEventId != null) request.header("Last-Event-ID", lastEventId);
+        return new Events(client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream()));
+    }
+
+    @Test
+    void streamSendsEachNewReadingAsAnEvent() throws Exception {
+        WeatherData first = reading(T0, 1);
+        api.publish(first);
+        try (Events events = stream(null)) {
+            assertArrayEquals(new String[]{"1", json(first)}, events.next());
+            WeatherData second = reading(T0 + 1000, 2);
+            api.publish(second);
+            assertArrayEquals(new String[]{"2", json(second)}, events.next());
+        }
+        assertEquals(json(reading(T0 + 1000, 2)), get("/api/current").body());
+    }
+
+    @Test
+    void clientsBehindSkipToTheLatestReading() throws Exception {
+        for (int i = 1; i <= 10; i++) api.publish(reading(T0 + i, i));
+        // A client that last saw event 2 gets only the latest, not 3 to 10
+        try (Events events = stream("2")) {
+            assertArrayEquals(new String[]{"10", json(reading(T0 + 10, 10))}, events.next());
+            // A burst while the client isn't reading arrives in order, newest last, never repeated
+            int last = 1_010;
+            for (int i = 11; i <= last; i++) api.publish(reading(T0 + i, i));
+            List<Long> ids = new ArrayList<>();
+            do {
+                ids.add(Long.parseLong(events.next()[0]));
+            } while (ids.get(ids.size() - 1) < last);
+            List<Long> sorted = new ArrayList<>(ids);
+            Collections.sort(sorted);
+            assertEquals(sorted, ids);
+            assertEquals(ids.size(), ids.stream().distinct().count());
+        }
+    }
+
+    @Test
+    void listensOnLoopbackOnly() throws Exception {
+        InetAddress external = null;
+        for (NetworkInterface nic : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+            if (!nic.isUp() || nic.isLoopback()) continue;
+            for (InetAddress address : Collections.list(nic.getInetAddresses())) {
+                if (!address.isLinkLocalAddress()) external = address;
+            }
+        }
+        assumeTrue(external != null, "no non-loopback interface");
+        try (Socket socket = new Socket()) {
+            InetSocketAddress target = new InetSocketAddress(external, api.port());
+            assertThrows(ConnectException.class, () -> socket.connect(target, 2000));
+        }
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), api.port())) {
+            assertTrue(socket.isConnected());
+        }
+    }
+}
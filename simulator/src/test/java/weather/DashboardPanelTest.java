@@ -0,0 +1,54 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringReader;
+import org.junit.jupiter.api.Test;
+
+class DashboardPanelTest {
+    private static WeatherData reading(long timestamp, double precipitation) {
+        WeatherData data = new WeatherData();
+        data.timestamp = timestamp;
+        data.temperature = 15;
+        data.precipitation = precipitation;
+        return data;
+    }
+
+    // Steps like the frame clock does, returning how many steps ran before the panel went idle
+    private static int stepUntilIdle(DashboardPanel panel, int limit) {
+        int steps = 0;
+        while (panel.isAnimating()) {
+            assertTrue(steps < limit, "still animating after " + limit + " steps");
+            panel.step();
+            steps++;
+        }
+        return steps;
+    }
+
+    @Test
+    void idlesOnceNothingMoves() throws Exception {
+        WeatherModel model = new WeatherModel(AlertRules.parse(new StringReader(AlertRules.DEFAULT_CONFIG)));
+        DashboardPanel panel = new DashboardPanel(model);
+        panel.setSize(1000, 700);
+        model.currentData = reading(1_000, 0);
+        assertEquals(DashboardPanel.DRIFT_STEPS, stepUntilIdle(panel, DashboardPanel.DRIFT_STEPS + 1));
+
+        // A new reading drifts the sun and clouds again; rain keeps falling past the drift
+        model.currentData = reading(2_000, 5);
+        assertTrue(panel.isAnimating());
+        for (int i = 0; i < 2 * DashboardPanel.DRIFT_STEPS; i++) panel.step();
+        assertTrue(panel.isAnimating());
+
+        // Once it stops raining the panel idles after the last drops land
+        model.currentData = reading(3_000, 0);
+        stepUntilIdle(panel, 10 * DashboardPanel.DRIFT_STEPS);
+        assertFalse(panel.isAnimating());
+
+        // The grid point replaces the reading on display
+        model.liveData = reading(3_000, 0);
+        assertTrue(panel.isAnimating());
+        assertEquals(DashboardPanel.DRIFT_STEPS, stepUntilIdle(panel, DashboardPanel.DRIFT_STEPS + 1));
+        panel.setOverlay(true);
+        assertTrue(panel.isAnimating());
+    }
+}
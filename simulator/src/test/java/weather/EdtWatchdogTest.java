@@ -0,0 +1,43 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.swing.SwingUtilities;
+import org.junit.jupiter.api.Test;
+
+class EdtWatchdogTest {
+    private static void blockEdt(long millis) throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    @Test
+    void eachStallIsCountedOnce() throws Exception {
+        Thread watchdog = new Thread(new EdtWatchdog(50), "edt-watchdog-test");
+        watchdog.setDaemon(true);
+        long before = Metrics.edtStalls.get();
+        watchdog.start();
+        try {
+            // Let the first heartbeat find the EDT
+            Thread.sleep(100);
+            blockEdt(10);
+            Thread.sleep(100);
+            assertEquals(before, Metrics.edtStalls.get(), "short blocks are not stalls");
+            blockEdt(400);
+            Thread.sleep(100);
+            assertEquals(before + 1, Metrics.edtStalls.get(), "a long stall is reported once");
+            assertTrue(Metrics.lastEdtStall.contains("EdtWatchdogTest.lambda$blockEdt"), Metrics.lastEdtStall);
+            blockEdt(400);
+            Thread.sleep(100);
+            assertEquals(before + 2, Metrics.edtStalls.get());
+        } finally {
+            watchdog.interrupt();
+            watchdog.join();
+        }
+    }
+}
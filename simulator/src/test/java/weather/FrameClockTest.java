@@ -0,0 +1,79 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import org.junit.jupiter.api.Test;
+
+class FrameClockTest {
+    // Stands in for a visible panel; headless components are never really showing
+    static class Panel extends JComponent implements FrameClock.Animated {
+        final long stepMillis;
+        final CountDownLatch steps;
+        volatile boolean animating = true;
+
+        Panel(long stepMillis, int expectedSteps) {
+            this.stepMillis = stepMillis;
+            this.steps = new CountDownLatch(expectedSteps);
+        }
+
+        @Override
+        public boolean isShowing() {
+            return true;
+        }
+
+        @Override
+        public long stepMillis() {
+            return stepMillis;
+        }
+
+        @Override
+        public void step() {
+            steps.countDown();
+        }
+
+        @Override
+        public boolean isAnimating() {
+            return animating;
+        }
+    }
+
+    @Test
+    void registeredPanelsStartTicking() throws Exception {
+        FrameClock clock = new FrameClock();
+        Panel slow = new Panel(40, 3), fast = new Panel(16, 10);
+        SwingUtilities.invokeAndWait(() -> {
+            clock.register(slow);
+            clock.register(fast);
+        });
+        assertTrue(fast.steps.await(2, TimeUnit.SECONDS), "fast panel never stepped");
+        assertTrue(slow.steps.await(2, TimeUnit.SECONDS), "slow panel never stepped");
+    }
+
+    @Test
+    void wakeRestartsAnIdleClock() throws Exception {
+        FrameClock clock = new FrameClock();
+        Panel panel = new Panel(16, 1);
+        panel.animating = false;
+        SwingUtilities.invokeAndWait(() -> clock.register(panel));
+        // Let the clock find nothing animating and stop
+        Thread.sleep(200);
+        assertEquals(1, panel.steps.getCount());
+        panel.animating = true;
+        SwingUtilities.invokeAndWait(clock::wake);
+        assertTrue(panel.steps.await(2, TimeUnit.SECONDS), "clock did not restart");
+    }
+
+    @Test
+    void workCanBeDrivenOnBehalfOfAComponent() throws Exception {
+        FrameClock clock = new FrameClock();
+        Panel host = new Panel(1_000, 1), work = new Panel(16, 3);
+        host.animating = false;
+        SwingUtilities.invokeAndWait(() -> clock.register(host, work));
+        assertTrue(work.steps.await(2, TimeUnit.SECONDS), "work never stepped");
+        assertEquals(1, host.steps.getCount());
+    }
+}
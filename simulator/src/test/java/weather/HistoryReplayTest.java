@@ -0,0 +1,160 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingUtilities;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HistoryReplayTest {
+    private static final long T0 = 1_700_000_000_000L;
+    private static final long STEP = 60_000L;
+    // Several prefetch chunks and a partial one; at a minute apart they fit in the retained month
+    private static final int ROWS = 5 * 4096 + 123;
+
+    @TempDir
+    Path dir;
+    private ObservationStore store;
+    private WeatherModel model;
+
+    @BeforeEach
+    void fill() throws IOException {
+        store = ObservationStore.open(dir.toFile());
+        WeatherBatch batch = new WeatherBatch(ROWS);
+        WeatherData data = new WeatherData();
+        for (int i = 0; i < ROWS; i++) {
+            data.timestamp = T0 + i * STEP;
+            data.temperature = i % 50 - 20;
+            batch.add(data);
+        }
+        store.append(batch);
+        model = new WeatherModel(AlertRules.parse(new StringReader(AlertRules.DEFAULT_CONFIG)));
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        store.close();
+    }
+
+    // Advances until the replay clock reaches time, waiting out prefetch stalls
+    private static void advanceTo(HistoryReplay replay, long time) throws Exception {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (replay.time() < time) {
+            assertTrue(System.nanoTime() < deadline, "replay never reached " + time);
+            long before = replay.time();
+            replay.advance((long) ((time - before) / replay.speed() * 1e6));
+            if (replay.time() == before) Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void seekResumesWithTheFirstReadingAfterTheTarget() throws Exception {
+        HistoryReplay replay = new HistoryReplay(store, model);
+        // Between readings 100 and 101, then exactly on reading 200
+        replay.seek(T0 + 100 * STEP + STEP / 2);
+        assertEquals(T0 + 100 * STEP, model.currentData.timestamp);
+        assertEquals(101, model.history.size());
+        replay.setSpeed(1_000);
+        assertFalse(replay.advance(STEP / 2 * 1_000_000L / 1_000 - 1_000_000));
+        assertTrue(replay.advance(1_000_000));
+        assertEquals(T0 + 101 * STEP, model.currentData.timestamp);
+
+        replay.seek(T0 + 200 * STEP);
+        assertEquals(T0 + 200 * STEP, model.currentData.timestamp);
+        assertTrue(replay.advance(STEP * 1_000_000L / 1_000));
+        assertEquals(T0 + 201 * STEP, model.currentData.timestamp);
+        replay.close();
+    }
+
+    @Test
+    void speedScalesTheReplayClock() throws Exception {
+        HistoryReplay replay = new HistoryReplay(store, model);
+        replay.seek(T0);
+        replay.setSpeed(600);
+        long version = model.historyVersion;
+        // 100 ms at 600x is a simulated minute: one reading
+        assertTrue(replay.advance(100_000_000L));
+        assertEquals(T0 + 60_000L, replay.time());
+        assertEquals(version + 1, model.historyVersion);
+        replay.setSpeed(6_000);
+        assertTrue(replay.advance(100_000_000L));
+        assertEquals(T0 + 11 * STEP, replay.time());
+        assertEquals(T0 + 11 * STEP, model.currentData.timestamp);
+        assertEquals(version + 11, model.historyVersion);
+        replay.setSpeed(0);
+        assertEquals(1, replay.speed());
+        replay.setSpeed(1e9);
+        assertEquals(HistoryReplay.MAX_SPEED, replay.speed());
+        replay.close();
+    }
+
+    @Test
+    void playbackCrossesChunksWithoutGapsOrRepeats() throws Exception {
+        HistoryReplay replay = new HistoryReplay(store, model);
+        // Start inside the first chunk so chunk boundaries fall mid-advance
+        replay.seek(T0 + 1000 * STEP);
+        replay.setSpeed(HistoryReplay.MAX_SPEED);
+        advanceTo(replay, T0 + (ROWS - 1) * STEP);
+        assertTrue(replay.atEnd());
+        assertEquals(ROWS, model.history.size());
+        for (int i = 0; i < ROWS; i++) assertEquals(T0 + i * STEP, model.history.timestamp(i), "row " + i);
+        // Windows were fed every reading too
+        WeatherData expected = store.get(ROWS - 1);
+        assertEquals(expected.temperature, model.currentData.temperature);
+        replay.close();
+    }
+
+    @Test
+    void replayCancelsTheNowcastOnEntryAndEverySeek() throws Exception {
+        model.currentData = store.latest();
+        List<Nowcast.Result> results = new ArrayList<>();
+        CountDownLatch firstRound = new CountDownLatch(1), released = new CountDownLatch(1), done = new CountDownLatch(1);
+        Nowcast nowcast = new Nowcast(400, result -> {
+            synchronized (results) {
+                results.add(result);
+            }
+            if (result.start == T0 + (ROWS - 1) * STEP && firstRound.getCount() > 0) {
+                // Hold the live run between rounds while replay starts
+                firstRound.countDown();
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (result.start == -1 && result.complete()) done.countDown();
+        });
+        AtomicInteger replays = new AtomicInteger();
+        ReplayBar bar = new ReplayBar(model, FrameClock.MANUAL, () -> {
+            replays.incrementAndGet();
+            nowcast.cancel();
+        }, () -> { }, () -> { });
+        bar.setStore(store);
+        nowcast.submit(model.currentData);
+        assertTrue(firstRound.await(10, TimeUnit.SECONDS));
+        SwingUtilities.invokeAndWait(() -> bar.setReplaying(true));
+        assertEquals(1, replays.get());
+        SwingUtilities.invokeAndWait(() -> bar.seek(T0 + 10 * STEP));
+        assertEquals(2, replays.get());
+        released.countDown();
+        // The coordinator runs one submission at a time, so the live run has ended once a later one completes
+        WeatherData marker = new WeatherData();
+        marker.timestamp = -1;
+        nowcast.submit(marker);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        synchronized (results) {
+            assertEquals(1, results.stream().filter(r -> r.start != -1).count(), "live rounds after replay started");
+        }
+        SwingUtilities.invokeAndWait(() -> bar.setReplaying(false));
+    }
+}
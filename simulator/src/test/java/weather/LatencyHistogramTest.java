@@ -0,0 +1,56 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+    @Test
+    void percentilesMatchTheSortedSampleWithinABucket() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        SplittableRandom random = new SplittableRandom(5);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // Log-normal around 1 ms with a long tail, as frame and request times are
+            values[i] = (long) (1e6 * Math.exp(random.nextGaussian() * 1.5));
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (double q : new double[]{0.001, 0.1, 0.5, 0.9, 0.99, 0.999, 1}) {
+            long exact = values[(int) Math.ceil(q * values.length) - 1];
+            // A bucket spans at most 1/32 of its values, and the estimate is its midpoint
+            assertEquals(exact, histogram.percentile(q), exact / 64.0 + 1, "q=" + q);
+        }
+        assertEquals(values.length, histogram.count());
+        assertEquals(values[values.length - 1], histogram.max());
+        assertEquals(Arrays.stream(values).average().orElseThrow(), histogram.mean(), 1e-6);
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        for (int v = 0; v < 64; v++) histogram.record(v);
+        histogram.record(1_000);
+        for (int v = 0; v < 64; v++) assertEquals(v + 0.5, histogram.percentile((v + 1) / 65.0), 0.0, "v=" + v);
+        // The top bucket is capped at the exact maximum
+        assertEquals(1_000, histogram.percentile(1));
+    }
+
+    @Test
+    void outOfRangeValuesAreClampedAndResetClears() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        assertEquals(0, histogram.percentile(0.5));
+        histogram.record(-5);
+        histogram.record(10);
+        assertEquals(0.5, histogram.percentile(0.5));
+        histogram.record(Long.MAX_VALUE);
+        assertEquals((1L << 40) - 1, histogram.max());
+        assertEquals((1L << 40) - 1, histogram.percentile(1), (1L << 40) / 64.0);
+        histogram.reset();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.max());
+        assertEquals(0, histogram.percentile(0.99));
+    }
+}
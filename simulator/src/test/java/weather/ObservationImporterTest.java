@@ -0,0 +1,90 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ObservationImporterTest {
+    @TempDir
+    Path dir;
+
+    private static double number(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        return ObservationImporter.parseNumber(bytes, 0, bytes.length);
+    }
+
+    private static long timestamp(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        return ObservationImporter.parseTimestamp(bytes, 0, bytes.length);
+    }
+
+    @Test
+    void numbersMatchDoubleParseDouble() {
+        for (String text : new String[]{"0", "-0", "+1", "12.5", "-3.25", ".5", "5.", "1013.25", "1e3", "2.5E-2",
+                "0.1", "123456789012345", "1234567890.12345678", "9007199254740993", "1e-30", "00012"}) {
+            assertEquals(Double.parseDouble(text), number(text), text);
+        }
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 10_000; i++) {
+            String text = String.format("%.4f", (random.nextDouble() - 0.5) * 2000);
+            assertEquals(Double.parseDouble(text), number(text), text);
+        }
+    }
+
+    @Test
+    void rejectsMalformedNumbers() {
+        for (String text : new String[]{"", "-", ".", "1e", "1.2.3", "12a", "abc", "1 "}) {
+            assertTrue(Double.isNaN(number(text)), text);
+        }
+    }
+
+    @Test
+    void timestampsMatchJavaTime() {
+        for (String text : new String[]{"2024-05-01T12:00:00Z", "2024-02-29T23:59:59.5Z", "1969-12-31T23:00:00Z",
+                "2024-05-01T12:00:00+02:00", "2024-05-01T12:00:00.123-05:30", "1600-03-01T00:00:00Z"}) {
+            assertEquals(OffsetDateTime.parse(text).toInstant().toEpochMilli(), timestamp(text), text);
+        }
+        assertEquals(OffsetDateTime.parse("2024-05-01T12:30:00Z").toInstant().toEpochMilli(), timestamp("2024-05-01 12:30Z"));
+        assertEquals(1714564800000L, timestamp("1714564800000"));
+        assertEquals(-1000L, timestamp("-1000"));
+    }
+
+    @Test
+    void rejectsMalformedTimestamps() {
+        for (String text : new String[]{"", "abc", "2024-13-01T00:00Z", "2024-05-01T24:00Z", "2024-05-01T12:00:00Q", "12x"}) {
+            assertEquals(Long.MIN_VALUE, timestamp(text), text);
+        }
+    }
+
+    @Test
+    void importCountsRejectedRows() throws Exception {
+        File csv = dir.resolve("in.csv").toFile();
+        Files.writeString(csv.toPath(), String.join("\n",
+                "timestamp,temperature,humidity",
+                "2024-05-01T00:00:00Z,10,50",
+                "2024-05-01T01:00:00Z,,55",
+                "2024-05-01T02:00:00Z,999,50",
+                "2024-05-01T00:30:00Z,11,50",
+                "not a time,12,50",
+                "2024-05-01T03:00:00Z,13,60", ""));
+        try (ObservationStore store = ObservationStore.open(dir.resolve("data").toFile())) {
+            ObservationImporter.Result result = new ObservationImporter(store).importFile(csv);
+            assertEquals(6, result.rows);
+            assertEquals(3, result.imported);
+            assertEquals(1, result.rejectedParse);
+            assertEquals(1, result.rejectedRange);
+            assertEquals(1, result.rejectedOrder);
+            WeatherData second = store.get(1);
+            assertFalse(second.has(WeatherData.TEMPERATURE));
+            assertEquals(55.0, second.humidity);
+            assertEquals(13.0, store.latest().temperature);
+        }
+    }
+}
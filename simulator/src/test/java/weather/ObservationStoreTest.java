@@ -0,0 +1,146 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ObservationStoreTest {
+    @TempDir
+    Path dir;
+
+    private static WeatherData reading(long timestamp, double temperature) {
+        WeatherData data = new WeatherData();
+        data.timestamp = timestamp;
+        data.temperature = temperature;
+        return data;
+    }
+
+    // Timestamps 0, 0, 10, 10, 20, 20, ...: every value is duplicated, some pairs across blocks
+    private static WeatherBatch pairs(int rows) {
+        return pairs(0, rows);
+    }
+
+    private static WeatherBatch pairs(long start, int rows) {
+        WeatherBatch batch = new WeatherBatch(rows);
+        for (int i = 0; i < rows; i++) batch.add(reading(start + i / 2 * 10L, i));
+        return batch;
+    }
+
+    @Test
+    void lowerBoundMatchesLinearScanAcrossSegments() throws IOException {
+        int rows = ObservationStore.RECORDS_PER_SEGMENT + 3 * ObservationStore.INDEX_STRIDE + 1;
+        try (ObservationStore store = ObservationStore.open(dir.toFile())) {
+            store.append(pairs(rows));
+            assertEquals(rows, store.size());
+            long expected = 0;
+            for (long t = -5; t <= rows / 2 * 10L + 5; t += 5) {
+                while (expected < rows && store.timestampAt(expected) < t) expected++;
+                assertEquals(expected, store.lowerBound(t), "lowerBound(" + t + ")");
+            }
+        }
+    }
+
+    @Test
+    void indexCoversRecordsAppendedAfterItWasBuilt() throws IOException {
+        try (ObservationStore store = ObservationStore.open(dir.toFile())) {
+            int rows = 0;
+            // Each lowerBound sees a partly indexed segment: blocks start at, inside and past the
+            // previous high-water mark
+            for (int chunk : new int[]{1, ObservationStore.INDEX_STRIDE - 2, 3, 5 * ObservationStore.INDEX_STRIDE + 7}) {
+                for (int i = 0; i < chunk; i++, rows++) store.append(reading(rows, 0));
+                for (long t = 0; t < rows; t++) assertEquals(t, store.lowerBound(t));
+            }
+        }
+    }
+
+    @Test
+    void readRangeIsHalfOpen() throws IOException {
+        try (ObservationStore store = ObservationStore.open(dir.toFile())) {
+            store.append(pairs(100));
+            WeatherBatch out = new WeatherBatch(16);
+            assertEquals(4, store.readRange(100, 120, out));
+            assertEquals(100, out.timestamp(0));
+            assertEquals(110, out.timestamp(3));
+            assertEquals(20.0, out.value(0, WeatherData.TEMPERATURE));
+        }
+    }
+
+    @Test
+    void readReturnsRecordsFromIndex() throws IOException {
+        try (ObservationStore store = ObservationStore.open(dir.toFile())) {
+            store.append(pairs(10));
+            WeatherBatch out = new WeatherBatch(16);
+            assertEquals(3, store.read(7, 5, out));
+            assertEquals(7.0, out.value(0, WeatherData.TEMPERATURE));
+            assertEquals(0, store.read(10, 5, out));
+        }
+    }
+
+    @Test
+    void rowsBeforeARejectedOneAreCommitted() throws IOException {
+        File root = dir.toFile();
+        try (ObservationStore store = ObservationStore.open(root)) {
+            WeatherBatch batch = new WeatherBatch(4);
+            batch.add(reading(100, 1));
+            batch.add(reading(200, 2));
+            batch.add(reading(150, 3));
+            batch.add(reading(300, 4));
+            assertThrows(IllegalArgumentException.class, () -> store.append(batch, false));
+            assertEquals(2, store.size());
+        }
+        try (ObservationStore store = ObservationStore.open(root)) {
+            assertEquals(2, store.size());
+            assertEquals(200, store.latest().timestamp);
+        }
+    }
+
+    @Test
+    void reopenSeesCommittedRecords() throws IOException {
+        File root = dir.toFile();
+        try (ObservationStore store = ObservationStore.open(root)) {
+            store.append(pairs(ObservationStore.RECORDS_PER_SEGMENT + 10));
+            store.force();
+        }
+        try (ObservationStore store = ObservationStore.open(root)) {
+            assertEquals(ObservationStore.RECORDS_PER_SEGMENT + 10, store.size());
+            store.append(reading(store.latest().timestamp, 42));
+            assertEquals(42.0, store.latest().temperature);
+        }
+    }
+
+    @Test
+    void deferredAppendsReachDiskCountsOnlyOnForce() throws IOException {
+        File root = dir.toFile();
+        try (ObservationStore store = ObservationStore.open(root)) {
+            store.append(pairs(10), true);
+            store.appendDeferred(pairs(1000, 30));
+            // Readable here at once, but the headers still describe the forced records only
+            assertEquals(40, store.size());
+            try (ObservationStore reopened = ObservationStore.open(root)) {
+                assertEquals(10, reopened.size());
+            }
+            store.force();
+            try (ObservationStore reopened = ObservationStore.open(root)) {
+                assertEquals(40, reopened.size());
+            }
+        }
+    }
+
+    @Test
+    void unpublishedTailSegmentsAreDroppedOnOpen() throws IOException {
+        File root = dir.toFile();
+        try (ObservationStore store = ObservationStore.open(root)) {
+            store.append(pairs(5), true);
+            // Spans two more segments without publishing any count, as a crash mid-interval would leave it
+            store.appendDeferred(pairs(1000, 2 * ObservationStore.RECORDS_PER_SEGMENT));
+        }
+        try (ObservationStore store = ObservationStore.open(root)) {
+            assertEquals(5, store.size());
+            assertEquals(1, root.listFiles((d, name) -> name.endsWith(".seg")).length);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class RegionalGridTest {
+    private static final int N = 256;
+    private static final int STEPS = 40;
+    private static final int[] FIELDS = {WeatherData.PRECIPITATION, WeatherData.TEMPERATURE, WeatherData.WIND_SPEED};
+
+    @Test
+    void copiesDuringStepsMatchACompletedStep() throws Exception {
+        // Reference run: every field after every step, taken with nothing else running
+        RegionalGrid reference = new RegionalGrid(N, 5, 0);
+        List<float[][]> expected = new ArrayList<>();
+        expected.add(copyAll(reference));
+        for (int s = 0; s < STEPS; s++) {
+            reference.step();
+            expected.add(copyAll(reference));
+        }
+
+        RegionalGrid grid = new RegionalGrid(N, 5, 0);
+        AtomicBoolean done = new AtomicBoolean();
+        Thread stepper = new Thread(() -> {
+            for (int s = 0; s < STEPS; s++) grid.step();
+            done.set(true);
+        });
+        stepper.start();
+        float[] dst = new float[N * N];
+        int copies = 0;
+        boolean rained = false;
+        while (!done.get()) {
+            for (int f = 0; f < FIELDS.length; f++) {
+                int step = (int) grid.copy(FIELDS[f], dst);
+                assertArrayEquals(expected.get(step)[f], dst, "field " + FIELDS[f] + " at step " + step);
+                if (FIELDS[f] == WeatherData.PRECIPITATION) for (float v : dst) rained |= v > 0;
+                copies++;
+            }
+        }
+        stepper.join();
+        assertTrue(copies > 0);
+        assertTrue(rained, "no rain to check");
+    }
+
+    @Test
+    void sizesMustBeWholeTiles() {
+        assertTrue(RegionalGrid.isValidSize(256));
+        assertTrue(RegionalGrid.isValidSize(1024));
+        assertFalse(RegionalGrid.isValidSize(0));
+        assertFalse(RegionalGrid.isValidSize(-256));
+        assertFalse(RegionalGrid.isValidSize(300));
+        assertThrows(IllegalArgumentException.class, () -> new RegionalGrid(300, 1, 0));
+    }
+
+    private static float[][] copyAll(RegionalGrid grid) {
+        float[][] fields = new float[FIELDS.length][N * N];
+        for (int f = 0; f < FIELDS.length; f++) grid.copy(FIELDS[f], fields[f]);
+        return fields;
+    }
+}
@@ -0,0 +1,62 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class SensorNetworkTest {
+    @Test
+    void snapshotsNeverSeeHalfWrittenRows() throws Exception {
+        int stations = 4;
+        SensorNetwork network = new SensorNetwork(stations, 0, 1);
+        AtomicBoolean done = new AtomicBoolean();
+        Thread[] writers = new Thread[stations];
+        for (int s = 0; s < stations; s++) {
+            int station = s;
+            // Every field of reading k holds k, so a torn row shows up as fields that disagree
+            writers[s] = new Thread(() -> {
+                WeatherData data = new WeatherData();
+                for (int k = 1; !done.get(); k++) {
+                    data.timestamp = k;
+                    for (int f = 0; f < WeatherData.UV_INDEX; f++) data.set(f, k);
+                    data.uvIndex = k & 0xFFFF;
+                    network.publish(station, data);
+                }
+            });
+            writers[s].start();
+        }
+        try {
+            long end = System.nanoTime() + 500_000_000L;
+            int checked = 0;
+            while (System.nanoTime() < end) {
+                SensorNetwork.Snapshot snapshot = network.snapshot();
+                for (int s = 0; s < stations; s++) {
+                    if (!snapshot.has(s)) continue;
+                    double k = snapshot.value(s, WeatherData.TEMPERATURE);
+                    for (int f = 1; f < WeatherData.UV_INDEX; f++) assertEquals(k, snapshot.value(s, f), "station " + s);
+                    assertEquals((long) k & 0xFFFF, (long) snapshot.value(s, WeatherData.UV_INDEX));
+                    checked++;
+                }
+            }
+            assertTrue(checked > 0);
+        } finally {
+            done.set(true);
+            for (Thread writer : writers) writer.join();
+        }
+    }
+
+    @Test
+    void snapshotCountsEveryPublishedReading() {
+        SensorNetwork network = new SensorNetwork(3, 0, 1);
+        WeatherData data = new WeatherData();
+        for (int i = 0; i < 5; i++) network.publish(0, data);
+        network.publish(2, data);
+        SensorNetwork.Snapshot snapshot = network.snapshot();
+        assertEquals(6, snapshot.readings);
+        assertEquals(2, snapshot.reporting);
+        assertTrue(snapshot.has(0));
+        assertFalse(snapshot.has(1));
+        assertEquals(data.temperature, snapshot.mean(WeatherData.TEMPERATURE));
+    }
+}
@@ -0,0 +1,93 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class SlidingWindowTest {
+    private static final long LENGTH = 60_000;
+
+    @Test
+    void aggregatesMatchRescanOfLiveReadings() {
+        SlidingWindow window = new SlidingWindow("test", LENGTH);
+        List<WeatherData> all = new ArrayList<>();
+        SplittableRandom random = new SplittableRandom(1);
+        long time = 0;
+        for (int n = 0; n < 5000; n++) {
+            // Irregular spacing, repeated timestamps and missing fields
+            time += random.nextInt(4) * 1000L;
+            WeatherData data = new WeatherData();
+            data.timestamp = time;
+            for (int f = 0; f < WeatherData.FIELD_COUNT; f++) {
+                data.set(f, WeatherData.VALID_MIN[f] + random.nextDouble() * (WeatherData.VALID_MAX[f] - WeatherData.VALID_MIN[f]));
+            }
+            if (random.nextInt(5) == 0) data.clear(WeatherData.HUMIDITY);
+            all.add(data);
+            window.add(data);
+            if (n % 97 == 0) assertMatches(window, all, time);
+        }
+        assertMatches(window, all, time);
+    }
+
+    private static void assertMatches(SlidingWindow window, List<WeatherData> all, long now) {
+        List<WeatherData> live = new ArrayList<>();
+        for (WeatherData data : all) if (data.timestamp > now - LENGTH) live.add(data);
+        assertEquals(live.size(), window.size());
+        for (int f = 0; f < WeatherData.FIELD_COUNT; f++) {
+            double sum = 0, min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+            int count = 0;
+            for (WeatherData data : live) {
+                if (!data.has(f)) continue;
+                double v = data.get(f);
+                sum += v;
+                count++;
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+            }
+            assertEquals(count, window.count(f));
+            if (count == 0) continue;
+            assertEquals(sum / count, window.mean(f), 1e-9 * Math.max(1, Math.abs(sum / count)));
+            assertEquals(min, window.min(f));
+            assertEquals(max, window.max(f));
+            // Percentiles are bin centres, so within one bin width of the exact rank
+            int field = f;
+            double[] sorted = live.stream().filter(d -> d.has(field)).mapToDouble(d -> d.get(field)).sorted().toArray();
+            double width = (WeatherData.VALID_MAX[f] - WeatherData.VALID_MIN[f]) / 1024;
+            for (double q : new double[]{0.1, 0.5, 0.9}) {
+                double exact = sorted[(int) Math.max(1, Math.ceil(q * count)) - 1];
+                assertEquals(exact, window.percentile(f, q), width);
+            }
+        }
+    }
+
+    @Test
+    void batchAndSingleAddsAgree() {
+        WeatherBatch batch = new WeatherBatch(16);
+        SlidingWindow single = new SlidingWindow("single", LENGTH);
+        SlidingWindow bulk = new SlidingWindow("bulk", LENGTH);
+        for (int i = 0; i < 500; i++) {
+            WeatherData data = new WeatherData();
+            data.timestamp = i * 1000L;
+            data.temperature = Math.sin(i / 10.0) * 20;
+            single.add(data);
+            bulk.add(batch, batch.add(data));
+        }
+        assertEquals(single.size(), bulk.size());
+        assertEquals(single.mean(WeatherData.TEMPERATURE), bulk.mean(WeatherData.TEMPERATURE), 1e-12);
+        assertEquals(single.min(WeatherData.TEMPERATURE), bulk.min(WeatherData.TEMPERATURE));
+        assertEquals(single.max(WeatherData.TEMPERATURE), bulk.max(WeatherData.TEMPERATURE));
+    }
+
+    @Test
+    void clearEmptiesTheWindow() {
+        SlidingWindow window = new SlidingWindow("test", LENGTH);
+        window.add(new WeatherData());
+        window.clear();
+        assertEquals(0, window.size());
+        assertTrue(Double.isNaN(window.mean(WeatherData.TEMPERATURE)));
+        assertTrue(Double.isNaN(window.max(WeatherData.TEMPERATURE)));
+    }
+}
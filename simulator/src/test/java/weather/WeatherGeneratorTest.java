@@ -0,0 +1,69 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class WeatherGeneratorTest {
+    @Test
+    void stationStreamsDoNotOverlap() {
+        // Lagged copies of one stream would share almost every value
+        Set<Long> seen = new HashSet<>();
+        for (long seed : new long[]{0, 42, -1}) {
+            for (int id = 0; id < 32; id++) {
+                SplittableRandom rng = new SplittableRandom(WeatherGenerator.seedFor(seed, id));
+                for (int i = 0; i < 1000; i++) assertTrue(seen.add(rng.nextLong()), "seed " + seed + " station " + id);
+            }
+        }
+    }
+
+    @Test
+    void neighbouringStationsAreUncorrelated() {
+        WeatherBatch[] stations = new WeatherGenerator(42, 3_600_000L).generate(2, 5000, 0L);
+        double[] a = changes(stations[0], WeatherData.PRESSURE), b = changes(stations[1], WeatherData.PRESSURE);
+        // Shifted noise would correlate strongly at a lag of one or a few steps
+        for (int lag = -5; lag <= 5; lag++) {
+            assertTrue(Math.abs(correlation(a, b, lag)) < 0.1, "lag " + lag);
+        }
+    }
+
+    @Test
+    void generationIsDeterministicPerSeed() {
+        WeatherBatch[] first = new WeatherGenerator(7, 60_000L).generate(20, 100, 0L);
+        WeatherBatch[] second = new WeatherGenerator(7, 60_000L).generate(20, 100, 0L);
+        for (int s = 0; s < first.length; s++) {
+            for (int i = 0; i < 100; i++) {
+                assertEquals(first[s].timestamp(i), second[s].timestamp(i));
+                for (int f = 0; f < WeatherData.FIELD_COUNT; f++) assertEquals(first[s].value(i, f), second[s].value(i, f));
+            }
+        }
+    }
+
+    private static double[] changes(WeatherBatch batch, int field) {
+        double[] out = new double[batch.size() - 1];
+        for (int i = 0; i < out.length; i++) out[i] = batch.value(i + 1, field) - batch.value(i, field);
+        return out;
+    }
+
+    private static double correlation(double[] a, double[] b, int lag) {
+        int from = Math.max(0, -lag), to = Math.min(a.length, b.length - lag);
+        double ma = 0, mb = 0;
+        for (int i = from; i < to; i++) {
+            ma += a[i];
+            mb += b[i + lag];
+        }
+        ma /= to - from;
+        mb /= to - from;
+        double sab = 0, saa = 0, sbb = 0;
+        for (int i = from; i < to; i++) {
+            double da = a[i] - ma, db = b[i + lag] - mb;
+            sab += da * db;
+            saa += da * da;
+            sbb += db * db;
+        }
+        return sab / Math.sqrt(saa * sbb);
+    }
+}
@@ -0,0 +1,79 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WriteBehindLogTest {
+    @TempDir
+    Path dir;
+
+    private static WeatherData reading(long timestamp) {
+        WeatherData data = new WeatherData();
+        data.timestamp = timestamp;
+        return data;
+    }
+
+    @Test
+    void outOfOrderReadingIsRejectedAlone() throws IOException {
+        List<Exception> errors = new ArrayList<>();
+        try (ObservationStore store = ObservationStore.open(dir.toFile())) {
+            WriteBehindLog log = new WriteBehindLog(store, 64, WriteBehindLog.Sync.INTERVAL, 1000, data -> { }, errors::add);
+            for (long ts : new long[]{100, 200, 150, 300, 400}) assertTrue(log.offer(reading(ts)));
+            log.close();
+            assertEquals(4, store.size());
+            assertEquals(400, store.latest().timestamp);
+        }
+        assertEquals(1, errors.size());
+    }
+
+    @Test
+    void closeCommitsDeferredReadings() throws IOException {
+        File root = dir.toFile();
+        try (ObservationStore store = ObservationStore.open(root)) {
+            WriteBehindLog log = new WriteBehindLog(store, 64, WriteBehindLog.Sync.INTERVAL, 60_000, data -> { }, e -> fail(e));
+            for (int i = 0; i < 50; i++) log.offer(reading(i));
+            log.close();
+        }
+        try (ObservationStore store = ObservationStore.open(root)) {
+            assertEquals(50, store.size());
+        }
+    }
+
+    @Test
+    void unknownSyncPolicyFallsBackToInterval() throws IOException {
+        String previous = System.setProperty("weather.fsync", "sometimes");
+        try (ObservationStore store = ObservationStore.open(dir.toFile())) {
+            WriteBehindLog log = WriteBehindLog.fromSystemProperties(store, data -> { }, e -> fail(e));
+            assertTrue(log.offer(reading(1)));
+            log.close();
+            assertEquals(1, store.size());
+        } finally {
+            if (previous == null) System.clearProperty("weather.fsync");
+            else System.setProperty("weather.fsync", previous);
+        }
+    }
+
+    @Test
+    void commitIsReportedOnceTheReadingIsInTheLog() throws IOException {
+        List<Long> committed = new ArrayList<>();
+        List<Exception> errors = new ArrayList<>();
+        try (ObservationStore store = ObservationStore.open(dir.toFile())) {
+            WriteBehindLog log = new WriteBehindLog(store, 64, WriteBehindLog.Sync.ALWAYS, 1000, data -> {
+                // Runs on the writer thread after the append
+                assertTrue(store.size() > committed.size());
+                committed.add(data.timestamp);
+            }, errors::add);
+            for (long ts : new long[]{100, 200, 150, 300}) assertTrue(log.offer(reading(ts)));
+            log.close();
+        }
+        assertEquals(List.of(100L, 200L, 300L), committed);
+        assertEquals(1, errors.size());
+    }
+}